@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: GameProfile.java@author: karlatemp@vip.qq.com: 2020/2/9 下午10:15@version: 2.0
+ */
+
+package com.mojang.authlib;
+
+import com.mojang.authlib.properties.PropertyMap;
+
+import java.util.UUID;
+
+public class GameProfile {
+    private final UUID id;
+    private final String name;
+    private final PropertyMap properties = new PropertyMap();
+
+    public GameProfile(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PropertyMap getProperties() {
+        return properties;
+    }
+}
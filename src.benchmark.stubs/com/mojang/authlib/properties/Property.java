@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: Property.java@author: karlatemp@vip.qq.com: 2020/2/9 下午10:15@version: 2.0
+ */
+
+package com.mojang.authlib.properties;
+
+public class Property {
+    private final String name, value, signature;
+
+    public Property(String name, String value, String signature) {
+        this.name = name;
+        this.value = value;
+        this.signature = signature;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: PropertyMap.java@author: karlatemp@vip.qq.com: 2020/2/9 下午10:15@version: 2.0
+ */
+
+package com.mojang.authlib.properties;
+
+import com.google.common.collect.ForwardingMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+
+public class PropertyMap extends ForwardingMultimap<String, Property> {
+    private final Multimap<String, Property> properties = LinkedHashMultimap.create();
+
+    @Override
+    protected Multimap<String, Property> delegate() {
+        return properties;
+    }
+}
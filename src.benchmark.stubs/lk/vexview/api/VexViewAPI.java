@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexViewAPI.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.api;
+
+import lk.vexview.chat.VexChatChannel;
+
+public class VexViewAPI {
+    public static void addChatChannel(VexChatChannel channel) {
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexChatChannel.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.chat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class VexChatChannel {
+    private final String name;
+    private boolean whiteEnable;
+    private final List<UUID> whiteList = new ArrayList<>(), blackList = new ArrayList<>();
+
+    public VexChatChannel(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isWhiteEnable() {
+        return whiteEnable;
+    }
+
+    public void setWhiteList(boolean whiteEnable) {
+        this.whiteEnable = whiteEnable;
+    }
+
+    public List<UUID> getWhiteList() {
+        return whiteList;
+    }
+
+    public List<UUID> getBlackList() {
+        return blackList;
+    }
+}
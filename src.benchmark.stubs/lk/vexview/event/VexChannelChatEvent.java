@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexChannelChatEvent.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.event;
+
+import lk.vexview.chat.VexChatChannel;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+public class VexChannelChatEvent extends Event implements Cancellable {
+    private static final HandlerList handlers = new HandlerList();
+    private final Player player;
+    private final VexChatChannel channel;
+    private String message;
+    private boolean cancelled;
+
+    public VexChannelChatEvent(Player player, VexChatChannel channel, String message) {
+        this.player = player;
+        this.channel = channel;
+        this.message = message;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public VexChatChannel getChannel() {
+        return channel;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexGui.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui;
+
+import lk.vexview.gui.components.VexComponents;
+
+import java.util.List;
+
+public class VexGui {
+    private final String url;
+    private final int x, y, width, height;
+    private List<VexComponents> components;
+    private boolean closable = true;
+
+    public VexGui(String url, int x, int y, int width, int height, List<VexComponents> components) {
+        this.url = url;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.components = components;
+    }
+
+    public List<VexComponents> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<VexComponents> components) {
+        this.components = components;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isClosable() {
+        return closable;
+    }
+
+    public void setClosable(boolean closable) {
+        this.closable = closable;
+    }
+}
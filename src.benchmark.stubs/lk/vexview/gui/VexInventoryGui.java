@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexInventoryGui.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui;
+
+import java.util.ArrayList;
+
+public class VexInventoryGui extends VexGui {
+    public VexInventoryGui(String url, int x, int y, int imageWidth, int imageHeight,
+                           int width, int height, int slotLeft, int slotTop) {
+        super(url, x, y, width, height, new ArrayList<>());
+    }
+}
@@ -0,0 +1,12 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ButtonFunction.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+import org.bukkit.entity.Player;
+
+public interface ButtonFunction {
+    void run(Player player);
+}
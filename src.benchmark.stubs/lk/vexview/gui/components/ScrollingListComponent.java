@@ -0,0 +1,9 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ScrollingListComponent.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+public interface ScrollingListComponent {
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexButton.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+public class VexButton extends VexComponents implements ScrollingListComponent {
+    protected final String text, background, focus;
+    protected final int w, h;
+    protected ButtonFunction function;
+
+    public VexButton(String id, String text, String background, String focus, int x, int y, int w, int h) {
+        this.id = id;
+        this.text = text;
+        this.background = background;
+        this.focus = focus;
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.h = h;
+    }
+
+    public int getW() {
+        return w;
+    }
+
+    public int getH() {
+        return h;
+    }
+
+    public void setFunction(ButtonFunction function) {
+        this.function = function;
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexCheckBox.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+public class VexCheckBox extends VexComponents {
+    private final String background, focus;
+    private final int width, height;
+    private final boolean checked;
+
+    public VexCheckBox(int id, String background, String focus, int x, int y, int width, int height, boolean checked) {
+        this.id = String.valueOf(id);
+        this.background = background;
+        this.focus = focus;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.checked = checked;
+    }
+}
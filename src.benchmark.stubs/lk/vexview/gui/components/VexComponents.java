@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexComponents.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+/**
+ * Benchmark stub. 只保留Builder模块用到的部分, 不要放到服务器上
+ */
+public class VexComponents {
+    protected String id;
+    protected int x, y;
+    protected VexHoverText hover;
+
+    public String getId() {
+        return id;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void setHover(VexHoverText hover) {
+        this.hover = hover;
+    }
+}
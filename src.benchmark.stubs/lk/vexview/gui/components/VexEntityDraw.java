@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexEntityDraw.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+
+public class VexEntityDraw extends VexComponents {
+    protected final int scale;
+    protected Object entity;
+
+    public VexEntityDraw(int x, int y, int scale, Entity entity) {
+        this.x = x;
+        this.y = y;
+        this.scale = scale;
+        this.entity = entity;
+    }
+
+    public VexEntityDraw(int x, int y, int scale, EntityType type) {
+        this.x = x;
+        this.y = y;
+        this.scale = scale;
+        this.entity = type;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexHoverText.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+import java.util.List;
+
+public class VexHoverText {
+    private final List<String> text;
+
+    public VexHoverText(List<String> text) {
+        this.text = text;
+    }
+
+    public List<String> getText() {
+        return text;
+    }
+}
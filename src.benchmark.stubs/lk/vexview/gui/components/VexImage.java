@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexImage.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+public class VexImage extends VexComponents implements ScrollingListComponent {
+    protected final String url;
+    protected final int xs, ys;
+
+    public VexImage(String url, int x, int y, int xs, int ys) {
+        this.url = url;
+        this.x = x;
+        this.y = y;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public int getXs() {
+        return xs;
+    }
+
+    public int getYs() {
+        return ys;
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexPlayerDraw.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+public class VexPlayerDraw extends VexEntityDraw {
+    public VexPlayerDraw(int x, int y, int scale, Player player) {
+        super(x, y, scale, player);
+    }
+
+    public VexPlayerDraw(int x, int y, int scale, UUID uniqueId, String name) {
+        super(x, y, scale, (Entity) null);
+        this.entity = uniqueId;
+    }
+
+    public VexPlayerDraw(int x, int y, int scale, Object profile) {
+        super(x, y, scale, (Entity) null);
+        this.entity = profile;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexScrollingList.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VexScrollingList extends VexComponents {
+    private final int width, height, fullHeight;
+    private final List<ScrollingListComponent> components = new ArrayList<>();
+
+    public VexScrollingList(int x, int y, int width, int height, int fullHeight) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.fullHeight = fullHeight;
+    }
+
+    public void addComponent(ScrollingListComponent component) {
+        components.add(component);
+    }
+
+    public List<ScrollingListComponent> getComponents() {
+        return components;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getFullHeight() {
+        return fullHeight;
+    }
+}
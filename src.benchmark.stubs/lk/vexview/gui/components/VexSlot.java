@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexSlot.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+import org.bukkit.inventory.ItemStack;
+
+public class VexSlot extends VexComponents implements ScrollingListComponent {
+    private int slotId;
+    private final ItemStack item;
+
+    public VexSlot(int id, int x, int y, ItemStack item) {
+        this.slotId = id;
+        this.x = x;
+        this.y = y;
+        this.item = item;
+    }
+
+    public void setId(int id) {
+        this.slotId = id;
+    }
+
+    public ItemStack getItem() {
+        return item;
+    }
+}
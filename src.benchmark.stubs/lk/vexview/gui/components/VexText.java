@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexText.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+import java.util.List;
+
+public class VexText extends VexComponents implements ScrollingListComponent {
+    private final List<String> text;
+    private final double scale;
+
+    public VexText(int x, int y, List<String> text, double scale) {
+        this.x = x;
+        this.y = y;
+        this.text = text;
+        this.scale = scale;
+    }
+
+    public VexText(int x, int y, List<String> text, double scale, VexHoverText hover, int textWidth) {
+        this(x, y, text, scale);
+        this.hover = hover;
+    }
+
+    public List<String> getText() {
+        return text;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexTextArea.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+import java.util.List;
+
+public class VexTextArea extends VexComponents {
+    protected final int width, height, maxLength, areaId;
+    protected final List<String> value;
+
+    public VexTextArea(int x, int y, int width, int height, int maxLength, int id, List<String> value) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.maxLength = maxLength;
+        this.areaId = id;
+        this.value = value;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
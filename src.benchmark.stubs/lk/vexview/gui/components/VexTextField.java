@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexTextField.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components;
+
+public class VexTextField extends VexComponents {
+    protected final int width, height, maxLength, fieldId;
+    protected final String value;
+
+    public VexTextField(int x, int y, int width, int height, int maxLength, int id, String value) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.maxLength = maxLength;
+        this.fieldId = id;
+        this.value = value;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
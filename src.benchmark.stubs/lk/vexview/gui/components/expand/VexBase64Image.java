@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexBase64Image.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components.expand;
+
+import lk.vexview.gui.components.VexComponents;
+import lk.vexview.gui.components.VexHoverText;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class VexBase64Image extends VexComponents {
+    private final byte[] base64;
+    private final int width, height;
+
+    public VexBase64Image(InputStream source, String id, int x, int y, int width, int height) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = source.read(buffer)) != -1) {
+            bos.write(buffer, 0, length);
+        }
+        this.base64 = bos.toByteArray();
+        this.id = id;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public VexBase64Image(InputStream source, String id, int x, int y, int width, int height, VexHoverText hover) throws IOException {
+        this(source, id, x, y, width, height);
+        this.hover = hover;
+    }
+
+    public byte[] getBase64() {
+        return base64;
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexClickableButton.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components.expand;
+
+import lk.vexview.gui.components.VexButton;
+
+public class VexClickableButton extends VexButton {
+    private final String unclickable;
+    private final boolean clickable;
+
+    public VexClickableButton(String id, String text, String background, String focus, String unclickable,
+                              int x, int y, int w, int h, boolean clickable) {
+        super(id, text, background, focus, x, y, w, h);
+        this.unclickable = unclickable;
+        this.clickable = clickable;
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexColorfulTextArea.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components.expand;
+
+import lk.vexview.gui.components.VexTextArea;
+
+import java.util.List;
+
+public class VexColorfulTextArea extends VexTextArea {
+    private final int mainColor, sideColor;
+
+    public VexColorfulTextArea(int x, int y, int width, int height, int maxLength, int id,
+                               int mainColor, int sideColor, List<String> value) {
+        super(x, y, width, height, maxLength, id, value);
+        this.mainColor = mainColor;
+        this.sideColor = sideColor;
+    }
+}
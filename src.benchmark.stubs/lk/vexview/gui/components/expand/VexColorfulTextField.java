@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexColorfulTextField.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components.expand;
+
+import lk.vexview.gui.components.VexTextField;
+
+public class VexColorfulTextField extends VexTextField {
+    private final int mainColor, sideColor;
+
+    public VexColorfulTextField(int x, int y, int width, int height, int maxLength, int id,
+                                int mainColor, int sideColor, String value) {
+        super(x, y, width, height, maxLength, id, value);
+        this.mainColor = mainColor;
+        this.sideColor = sideColor;
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexGifImage.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components.expand;
+
+import lk.vexview.gui.components.VexImage;
+
+public class VexGifImage extends VexImage {
+    private final int interval;
+
+    public VexGifImage(String url, int x, int y, int xs, int ys, int interval) {
+        super(url, x, y, xs, ys);
+        this.interval = interval;
+    }
+}
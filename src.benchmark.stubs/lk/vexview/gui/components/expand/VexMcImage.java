@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexMcImage.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components.expand;
+
+public class VexMcImage extends VexSplitImage {
+    public VexMcImage(String url, int x, int y, int splitX, int splitY, int xs, int ys,
+                      int splitWidth, int splitHeight, int imageWidth, int imageHeight) {
+        super(url, x, y, splitX, splitY, xs, ys, splitWidth, splitHeight, imageWidth, imageHeight);
+    }
+}
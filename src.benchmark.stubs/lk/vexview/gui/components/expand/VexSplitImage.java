@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexSplitImage.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.gui.components.expand;
+
+import lk.vexview.gui.components.VexImage;
+
+public class VexSplitImage extends VexImage {
+    protected final int splitX, splitY, splitWidth, splitHeight, imageWidth, imageHeight;
+
+    public VexSplitImage(String url, int x, int y, int splitX, int splitY, int xs, int ys,
+                         int splitWidth, int splitHeight, int imageWidth, int imageHeight) {
+        super(url, x, y, xs, ys);
+        this.splitX = splitX;
+        this.splitY = splitY;
+        this.splitWidth = splitWidth;
+        this.splitHeight = splitHeight;
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+    }
+}
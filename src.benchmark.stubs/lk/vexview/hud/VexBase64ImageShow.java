@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexBase64ImageShow.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.hud;
+
+import lk.vexview.gui.components.expand.VexBase64Image;
+
+public class VexBase64ImageShow extends VexShow {
+    public VexBase64ImageShow(int z, VexBase64Image image) {
+    }
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexButtonShow.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.hud;
+
+import lk.vexview.gui.components.VexButton;
+
+public class VexButtonShow extends VexShow {
+    public VexButtonShow(String id, VexButton button, int time, int z) {
+    }
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexEntityDrawShow.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.hud;
+
+import lk.vexview.gui.components.VexEntityDraw;
+
+public class VexEntityDrawShow extends VexShow {
+    public VexEntityDrawShow(String id, VexEntityDraw draw, int time, boolean isRotate, int z) {
+    }
+}
@@ -0,0 +1,11 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexImageShow.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.hud;
+
+public class VexImageShow extends VexShow {
+    public VexImageShow(String id, String url, int x, int y, int z, int w, int h, int xs, int ys, int time) {
+    }
+}
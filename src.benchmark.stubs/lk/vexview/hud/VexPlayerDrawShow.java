@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexPlayerDrawShow.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.hud;
+
+import lk.vexview.gui.components.VexPlayerDraw;
+
+public class VexPlayerDrawShow extends VexShow {
+    public VexPlayerDrawShow(String id, VexPlayerDraw draw, int time, boolean isRotate, int z) {
+    }
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexTextShow.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.hud;
+
+import java.util.List;
+
+public class VexTextShow extends VexShow {
+    public VexTextShow(String id, int x, int y, int z, List<String> text, int time) {
+    }
+}
@@ -0,0 +1,11 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: TagDirection.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.tag;
+
+public class TagDirection {
+    public TagDirection(float angleX, float angleY, float angleZ, boolean forPlayer, boolean playerCanSee) {
+    }
+}
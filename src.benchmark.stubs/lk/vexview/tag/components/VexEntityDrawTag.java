@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexEntityDrawTag.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.tag.components;
+
+import lk.vexview.gui.components.VexEntityDraw;
+import lk.vexview.tag.TagDirection;
+
+public class VexEntityDrawTag extends VexTag {
+    public VexEntityDrawTag(double x, double y, double z, TagDirection direction, String id, VexEntityDraw draw) {
+    }
+}
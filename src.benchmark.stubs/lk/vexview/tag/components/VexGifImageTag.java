@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexGifImageTag.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.tag.components;
+
+import lk.vexview.tag.TagDirection;
+
+public class VexGifImageTag extends VexTag {
+    public VexGifImageTag(String id, double x, double y, double z, String url, int w, int h, float xs, float ys, TagDirection direction) {
+    }
+}
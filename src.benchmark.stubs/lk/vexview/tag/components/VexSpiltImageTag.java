@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexSpiltImageTag.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.tag.components;
+
+import lk.vexview.tag.TagDirection;
+
+public class VexSpiltImageTag extends VexTag {
+    public VexSpiltImageTag(String id, String url, double x, double y, double z, int w, int h, float xs, float ys,
+                            int splitWidth, int splitHeight, int splitX, int splitY, TagDirection direction) {
+    }
+}
@@ -0,0 +1,13 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VexTextTag.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.tag.components;
+
+import lk.vexview.tag.TagDirection;
+
+public class VexTextTag extends VexTag {
+    public VexTextTag(String id, double x, double y, double z, String text, boolean black, TagDirection direction) {
+    }
+}
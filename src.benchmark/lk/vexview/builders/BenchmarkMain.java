@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: BenchmarkMain.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Builder模块的JMH基准测试入口.
+ * <p>
+ * 编译时 classpath 需要: {@code src} + {@code src.benchmark.stubs} + {@code src.benchmark} + bukkit-api + guava + jmh-core,
+ * 并使用 jmh-generator-annprocess 作为注解处理器. 在仓库根目录运行:
+ * <pre>{@code
+ * java -cp <classpath> lk.vexview.builders.BenchmarkMain [正则过滤]
+ * }</pre>
+ * 输出 ops/s 以及 gc profiler 的分配速率 (gc.alloc.rate / gc.alloc.rate.norm), 结果同时写入 bench_output.txt
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.TEXT)
+                .result("bench_output.txt");
+        if (args.length == 0) {
+            options.include("lk\\.vexview\\.builders\\..*Benchmark");
+        } else {
+            for (String include : args) options.include(include);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: BenchmarkSupport.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import java.util.Arrays;
+
+/**
+ * 基准测试共用的GUI样本
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+final class BenchmarkSupport {
+    /**
+     * Fork后的JVM参数. 字体表直接从仓库的resources读取, 不需要Bukkit服务器
+     */
+    static final String STATIC_BOOT = "-Dvexview.static.boot=resources/minecraft_font_sizes.bin";
+
+    static final String ASCII = "The quick brown fox jumps over the lazy dog 0123456789";
+    static final String CJK = "这是一个用于测量字体宽度的中文字符串，包含全角标点。";
+    static final String COLORED = "§6[§e商店§6] §f钻石剑 §7x1 §a$1200 §l§nSALE";
+
+    private BenchmarkSupport() {
+    }
+
+    static Slice9 border() {
+        return Slice9.slice9()
+                .left(3).right(3).top(3).bottom(3)
+                .imageSize(7, 7, 1, 1)
+                .address("[local]slice9.png", "[local]slice9.center.png");
+    }
+
+    /**
+     * 按 文本/物品槽/按钮/图片 轮流添加组件, 物品槽不放物品(ItemStack需要服务器)
+     *
+     * @param count 组件数量
+     * @return 填充好的构建器
+     */
+    static GuiBuilder populate(int count) {
+        GuiBuilder builder = GuiBuilder.builder();
+        for (int i = 0; i < count; i++) {
+            int x = (i % 10) * 20, y = (i / 10) * 20;
+            switch (i & 3) {
+                case 0:
+                    builder.newContext().location(x, y).text(text -> text.addLines(Arrays.asList(ASCII, COLORED)));
+                    break;
+                case 1:
+                    builder.newContext().location(x, y).slot(slot -> slot.item(null));
+                    break;
+                case 2: {
+                    String id = "button" + i;
+                    builder.newContext().location(x, y).button(button -> button.id(id)
+                            .background("[local]button.png", "[local]button2.png")
+                            .text(CJK).calculateSize(5, 5, 2, 2));
+                    break;
+                }
+                default:
+                    builder.newContext().location(x, y).image(image -> image.background("[local]icon.png")
+                            .imageSize(16, 16).size(16, 16));
+                    break;
+            }
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: CopyBenchmark.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builder之间复制/转换 ({@link ReflectionUtil#copyTo(Object, Class)}) 的基准测试
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.STATIC_BOOT)
+public class CopyBenchmark {
+    private ButtonBuilder button;
+    private ImageBuilder image;
+    private GuiBuilder gui;
+    private Locator location;
+
+    @Setup
+    public void setup() {
+        button = ButtonBuilder.builder().id("button")
+                .background("[local]button.png", "[local]button2.png")
+                .text("Button").size(60, 20);
+        image = ImageBuilder.builder().background("[local]icon.png").imageSize(16, 16).size(16, 16);
+        gui = GuiBuilder.builder().size(200, 150);
+        location = Locator.locator().location(20, 30);
+    }
+
+    @Benchmark
+    public ButtonBuilder buttonCopy() {
+        return button.copy(location);
+    }
+
+    @Benchmark
+    public SplitImageBuilder imageSplit() {
+        return image.split();
+    }
+
+    @Benchmark
+    public GuiBuilder newContext() {
+        return gui.newContext();
+    }
+
+    /**
+     * 只分配, 不复制字段
+     */
+    @Benchmark
+    public GuiBuilder allocate() {
+        return ReflectionUtil.allocate(GuiBuilder.class);
+    }
+
+    @Benchmark
+    public ButtonBuilder clickable() {
+        return button.clickable(true);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: FontSizeBenchmark.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link MinecraftFontSizeCalculation} 的基准测试
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.STATIC_BOOT)
+public class FontSizeBenchmark {
+    @Param({"ascii", "cjk", "colored"})
+    public String text;
+
+    private String line;
+    private List<String> lines;
+    private byte[] sizes;
+
+    @Setup
+    public void setup() {
+        // 资源文件已经是紧凑格式, 按 1.0.5 的 float 布局重新生成一份用于对比
+        ByteBuffer table = ByteBuffer.allocate(0x10000 * Float.BYTES);
+        for (int c = 0; c <= 0xFFFF; c++) {
+            table.putFloat(MinecraftFontSizeCalculation.getWidth((char) c));
+        }
+        sizes = table.array();
+        switch (text) {
+            case "cjk":
+                line = BenchmarkSupport.CJK;
+                break;
+            case "colored":
+                line = BenchmarkSupport.COLORED;
+                break;
+            default:
+                line = BenchmarkSupport.ASCII;
+        }
+        lines = new ArrayList<>();
+        for (int i = 0; i < 10; i++) lines.add(line);
+    }
+
+    @Benchmark
+    public float getWidth() {
+        float width = 0;
+        for (int i = 0; i < line.length(); i++) {
+            width += MinecraftFontSizeCalculation.getWidth(line.charAt(i));
+        }
+        return width;
+    }
+
+    /**
+     * 1.0.5 的做法: 每个字符 wrap 一次原始字节表 (下标已修正为 Float.BYTES), 用于对比 {@link #getWidth()}
+     */
+    @Benchmark
+    public float byteBufferWidth() {
+        float width = 0;
+        for (int i = 0; i < line.length(); i++) {
+            width += ByteBuffer.wrap(sizes, line.charAt(i) * Float.BYTES, Float.BYTES).getFloat();
+        }
+        return width;
+    }
+
+    /**
+     * 10行文本, 与 VexText 的测量一致
+     */
+    @Benchmark
+    public int calculatedSize() {
+        AtomicInteger width = new AtomicInteger();
+        AtomicInteger height = new AtomicInteger();
+        MinecraftFontSizeCalculation.calculatedSize(width, height, lines);
+        return width.get() + height.get();
+    }
+
+    @Benchmark
+    public long measureBlock() {
+        return MinecraftFontSizeCalculation.measureBlock(lines);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: GameProfileBenchmark.java@author: karlatemp@vip.qq.com: 2020/2/9 下午10:30@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import com.google.common.collect.Multimap;
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+import lk.vexview.gameprofile.WrappedGameProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WrappedGameProfile} 的访问开销: MethodHandle 包装 / 直接调用 / 1.0.5 的 Method.invoke
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.STATIC_BOOT)
+public class GameProfileBenchmark {
+    private static final String TEXTURES = "textures";
+
+    private GameProfile direct;
+    private WrappedGameProfile wrapped;
+    private Method getId, getName, getProperties, getValue;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        wrapped = new WrappedGameProfile(UUID.randomUUID(), "Karlatemp");
+        wrapped.getPropertyMap().put(TEXTURES, "eyJ0aW1lc3RhbXAiOjE1ODEyNTg0MDB9", "c2lnbmF0dXJl");
+        direct = (GameProfile) wrapped.getProfile();
+        getId = GameProfile.class.getDeclaredMethod("getId");
+        getName = GameProfile.class.getDeclaredMethod("getName");
+        getProperties = GameProfile.class.getDeclaredMethod("getProperties");
+        getValue = Property.class.getDeclaredMethod("getValue");
+    }
+
+    /**
+     * 构建玩家绘制时读取的内容: id, name, 皮肤
+     */
+    @Benchmark
+    public int wrapped() {
+        return wrapped.getId().hashCode()
+                + wrapped.getName().length()
+                + wrapped.getPropertyMap().getProperty(TEXTURES).length();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.getId().hashCode()
+                + direct.getName().length()
+                + direct.getProperties().get(TEXTURES).iterator().next().getValue().length();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public int reflection() throws ReflectiveOperationException {
+        Object profile = direct;
+        Collection<?> properties = ((Multimap<String, ?>) getProperties.invoke(profile)).get(TEXTURES);
+        return getId.invoke(profile).hashCode()
+                + ((String) getName.invoke(profile)).length()
+                + ((String) getValue.invoke(properties.iterator().next())).length();
+    }
+
+    @Benchmark
+    public WrappedGameProfile create() {
+        return new WrappedGameProfile(direct.getId(), "Karlatemp");
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: GuiBuilderBenchmark.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import lk.vexview.gui.VexGui;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GuiBuilder#build(String, int, int)} 与 {@link GuiBuilder#calculateSize()} 的基准测试
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.STATIC_BOOT)
+public class GuiBuilderBenchmark {
+    @Param({"10", "100", "1000"})
+    public int components;
+
+    private GuiBuilder prepared;
+    private GuiTemplate template;
+    private Map<String, Object> values;
+
+    @Setup
+    public void setup() {
+        prepared = BenchmarkSupport.populate(components);
+        template = BenchmarkSupport.populate(components)
+                .textHole("title", text -> text.location(4, 4))
+                .slotHole("head", slot -> slot.location(4, 20))
+                .calculateSize()
+                .template("[local]bg.png", -1, -1);
+        values = new HashMap<>();
+        values.put("title", BenchmarkSupport.COLORED);
+    }
+
+    /**
+     * 从零开始构建整个GUI, 相当于每个玩家打开一次GUI
+     */
+    @Benchmark
+    public VexGui construct() {
+        return BenchmarkSupport.populate(components).calculateSize().build("[local]bg.png", -1, -1);
+    }
+
+    /**
+     * 与 {@link #construct()} 相同的GUI, 但是使用模板, 每次只填充两个空位
+     */
+    @Benchmark
+    public VexGui instantiateTemplate() {
+        return template.instantiate(values);
+    }
+
+    @Benchmark
+    public GuiBuilder calculateSize() {
+        return prepared.calculateSize();
+    }
+
+    @Benchmark
+    public VexGui buildWithSlice9() {
+        return BenchmarkSupport.populate(components).calculateSize()
+                .buildWith(BenchmarkSupport.border(), -1, -1);
+    }
+}
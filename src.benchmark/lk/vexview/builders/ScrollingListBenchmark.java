@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ScrollingListBenchmark.java@author: karlatemp@vip.qq.com: 2020/2/7 下午2:05@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import lk.vexview.gui.components.VexScrollingList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 大量行的 {@link ScrollingListBuilder}, 比较逐行构建, {@link ScrollingListBuilder#rows(int, int, java.util.function.IntFunction)}
+ * 与在 ForkJoinPool 中并行的 {@link ScrollingListBuilder#rows(int, int, java.util.function.IntFunction, java.util.concurrent.Executor)}
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.STATIC_BOOT)
+public class ScrollingListBenchmark {
+    @Param({"100", "5000"})
+    public int rows;
+
+    private static Consumer<ScrollingListBuilder> row(int i) {
+        return row -> row
+                .slot(slot -> slot.item(null))
+                .text(text -> text.offset(20, 2).addLine(BenchmarkSupport.COLORED + i))
+                .button(button -> button.offset(140, 0).id("buy-" + i).text("购买")
+                        .background("[local]button.png", "[local]button_hover.png").size(40, 18));
+    }
+
+    @Benchmark
+    public VexScrollingList sequential() {
+        ScrollingListBuilder builder = ScrollingListBuilder.builder().visitHeight(200).size(180, 0);
+        for (int i = 0; i < rows; i++) {
+            builder.newContext().componentOffset(0, i * 20).accept(row(i));
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public VexScrollingList rows() {
+        return ScrollingListBuilder.builder().visitHeight(200).size(180, 0)
+                .rows(rows, 20, ScrollingListBenchmark::row)
+                .build();
+    }
+
+    @Benchmark
+    public VexScrollingList parallelRows() {
+        return ScrollingListBuilder.builder().visitHeight(200).size(180, 0)
+                .rows(rows, 20, ScrollingListBenchmark::row, ForkJoinPool.commonPool())
+                .build();
+    }
+}
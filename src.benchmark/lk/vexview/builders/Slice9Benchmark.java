@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: Slice9Benchmark.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:12@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Slice9} 渲染的基准测试, 覆盖正常/过窄/过矮三种切割
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.STATIC_BOOT)
+public class Slice9Benchmark {
+    @Param({"200x150", "4x150", "200x4"})
+    public String geometry;
+
+    private Slice9 slice9;
+
+    @Setup
+    public void setup() {
+        int split = geometry.indexOf('x');
+        slice9 = BenchmarkSupport.border().size(
+                Integer.parseInt(geometry.substring(0, split)),
+                Integer.parseInt(geometry.substring(split + 1))
+        );
+    }
+
+    @Benchmark
+    public GuiBuilder render() {
+        GuiBuilder builder = GuiBuilder.builder();
+        slice9.accept(builder);
+        return builder;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: CompactFontTable.java@author: karlatemp@vip.qq.com: 2020/2/8 下午8:15@version: 2.0
+ */
+
+package com.mcres.karlatemp.vexview.extpend.MFB;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 紧凑格式的字体宽度表, 由 lk.vexview.builders.MinecraftFontSizeCalculation 读取
+ * <pre>
+ * int    magic     0x56584657 ("VXFW")
+ * byte   version   1
+ * byte   页数 - 1
+ * byte[256]        每个高8位使用的页
+ * byte[页数][256]   宽度 * 2
+ * </pre>
+ */
+public class CompactFontTable {
+    public static final int MAGIC = 0x56584657, VERSION = 1;
+
+    /**
+     * 写出紧凑格式
+     *
+     * @param advances 65536 个字符的宽度, 必须是 0.5 的倍数且不超过 127.5
+     * @param out      输出
+     * @throws IOException IO错误
+     */
+    public static void write(float[] advances, DataOutput out) throws IOException {
+        if (advances.length != 0x10000) {
+            throw new IllegalArgumentException("advances.length != 65536");
+        }
+        Map<ByteBuffer, Integer> pages = new LinkedHashMap<>();
+        byte[] index = new byte[256];
+        for (int page = 0; page < 256; page++) {
+            byte[] data = new byte[256];
+            for (int i = 0; i < 256; i++) {
+                float advance = advances[page << 8 | i];
+                int half = Math.round(advance * 2);
+                if (half != advance * 2 || half < 0 || half > 0xFF) {
+                    throw new IllegalArgumentException(String.format(
+                            "Advance of \\u%04x (%s) cannot be stored in compact format", page << 8 | i, advance));
+                }
+                data[i] = (byte) half;
+            }
+            Integer used = pages.get(ByteBuffer.wrap(data));
+            if (used == null) pages.put(ByteBuffer.wrap(data), used = pages.size());
+            index[page] = (byte) (int) used;
+        }
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(pages.size() - 1);
+        out.write(index);
+        for (ByteBuffer page : pages.keySet()) {
+            out.write(page.array());
+        }
+    }
+
+    /**
+     * 读取旧格式 (65536 个大端序 float)
+     *
+     * @param data 文件内容
+     * @return 宽度表
+     */
+    public static float[] readFloats(byte[] data) {
+        float[] advances = new float[0x10000];
+        ByteBuffer.wrap(data).asFloatBuffer().get(advances, 0, Math.min(advances.length, data.length / Float.BYTES));
+        return advances;
+    }
+
+    public static boolean isCompact(byte[] data) {
+        return data.length >= 4 && ByteBuffer.wrap(data).getInt() == MAGIC;
+    }
+
+    private CompactFontTable() {
+    }
+}
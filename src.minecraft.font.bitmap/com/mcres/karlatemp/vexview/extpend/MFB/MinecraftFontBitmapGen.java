@@ -13,6 +13,8 @@ import com.google.gson.JsonObject;
 import java.io.*;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -23,11 +25,32 @@ import java.util.zip.ZipFile;
 public class MinecraftFontBitmapGen {
     public static String
             CLIENT_LOCATION,
-            OUTPUT;
+            OUTPUT,
+            FORMAT,
+            CONVERT;
 
     static {
         CLIENT_LOCATION = System.getProperty("client", "minecraft.jar");
         OUTPUT = System.getProperty("out", "out.sizes.bin");
+        // compact: CompactFontTable, float: 1.0.5 及以前使用的 65536 个 float
+        FORMAT = System.getProperty("format", "compact");
+        // 不读取客户端, 把已有的旧格式文件转换为 FORMAT
+        CONVERT = System.getProperty("convert");
+    }
+
+    private static void write(float[] advances) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(OUTPUT, "rw")) {
+            if ("float".equals(FORMAT)) {
+                for (float advance : advances) {
+                    raf.writeFloat(advance);
+                }
+            } else if ("compact".equals(FORMAT)) {
+                CompactFontTable.write(advances, raf);
+            } else {
+                throw new IllegalArgumentException("Unknown format " + FORMAT);
+            }
+            raf.setLength(raf.getFilePointer());
+        }
     }
 
     public static void main(String[] run) throws IOException {
@@ -36,8 +59,16 @@ public class MinecraftFontBitmapGen {
                     "install").invoke(null);
         } catch (Throwable ignore) {
         }
+        if (CONVERT != null) {
+            byte[] data = Files.readAllBytes(Paths.get(CONVERT));
+            if (CompactFontTable.isCompact(data)) {
+                throw new IllegalArgumentException(CONVERT + " is already in compact format");
+            }
+            write(CompactFontTable.readFloats(data));
+            return;
+        }
         JarFile jar = new JarFile(CLIENT_LOCATION);
-        try (RandomAccessFile raf = new RandomAccessFile(OUTPUT, "rw")) {
+        {
             ResourceLoader loader = new ClientResourceLoader(jar, null, "assets/"),
                     textures = new ClientResourceLoader(jar, "textures", "assets/");
             Gson gson = new Gson();
@@ -83,14 +114,14 @@ public class MinecraftFontBitmapGen {
                 }
             }
             // byte[] zipd = new byte[0xFFFF + 1];
+            float[] advances = new float[glyphs.length];
             for (int i = 0; i < glyphs.length; i++) {
                 FontProvider.Glyph g = glyphs[i];
                 if (g != null) {
-                    raf.writeFloat(g.getAdvance());
-                } else {
-                    raf.writeFloat(0);
+                    advances[i] = g.getAdvance();
                 }
             }
+            write(advances);
 //            int counter = 0;
 //            for (int w : zipd) {
 //                if (((counter++) & 0xF) == 0) {
@@ -99,7 +130,6 @@ public class MinecraftFontBitmapGen {
 //                System.out.format("%04x ", w & 0xFF);
 //            }
 //            System.out.println();
-            raf.setLength(raf.getFilePointer());
 //            raf.write(zipd);
         }
     }
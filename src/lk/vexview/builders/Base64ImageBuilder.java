@@ -15,7 +15,6 @@ import lk.vexview.tag.components.VexTag;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -48,17 +47,27 @@ public class Base64ImageBuilder extends ImageBuilder {
         ReflectionUtil.register(Base64ImageBuilder.class, MethodHandles.lookup());
     }
 
-    protected InputStream source;
+    /**
+     * {@link #source(Object, BufferedImage, String)} 使用的缓存
+     *
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public static final EncodedImageCache IMAGE_CACHE = new EncodedImageCache(
+            Long.getLong("vexview.builders.image-cache", 16 << 20));
+
+    // @version 1.0.6: InputStream => ImageSource, 可以多次构建
+    protected ImageSource source;
 
     /**
-     * 定义Base64图片源
+     * 定义Base64图片源. 流会在第一次构建时全部读取并关闭, 之后的构建使用读取到的内容
      *
      * @param stream 图片源
      * @return this
      */
     public Base64ImageBuilder source(InputStream stream) {
         Objects.requireNonNull(stream, "Image source cannot be null.");
-        source = stream;
+        source = ImageSource.stream(stream);
         return this;
     }
 
@@ -70,15 +79,30 @@ public class Base64ImageBuilder extends ImageBuilder {
      */
     public Base64ImageBuilder source(byte[] source) {
         Objects.requireNonNull(source, "Image source cannot be null.");
-        this.source = new ByteArrayInputStream(source);
+        this.source = ImageSource.bytes(source);
         return this;
     }
 
     /**
-     * 定义Base64图片源
+     * 定义可以重复读取的Base64图片源
+     *
+     * @param source 图片源
+     * @return this
+     * @see ImageSource#file(java.nio.file.Path)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public Base64ImageBuilder source(ImageSource source) {
+        Objects.requireNonNull(source, "Image source cannot be null.");
+        this.source = source;
+        return this;
+    }
+
+    /**
+     * 定义Base64图片源, 每次调用都会重新编码. 需要缓存编码结果时使用 {@link #source(Object, BufferedImage, String)}
      *
      * @param image  读取的图片
-     * @param format 格式化使用的格式, 比如 "png"
+     * @param format 格式化使用的格式, 比如 "png", 为 null 时使用 "jpg"
      * @return this
      * @throws IOException IO错误
      */
@@ -90,6 +114,26 @@ public class Base64ImageBuilder extends ImageBuilder {
         return source(bos.toByteArray());
     }
 
+    /**
+     * 定义Base64图片源, 按照 key 缓存编码结果, 比如玩家头像使用玩家的UUID作为key.
+     * key 也可以是图片本身 (按对象判断, 图片被回收后失效), 修改图片内容后需要 {@code IMAGE_CACHE.invalidate(image)}
+     *
+     * @param key    缓存的key, 不同格式分别缓存
+     * @param image  读取的图片, 只在没有缓存时编码
+     * @param format 格式化使用的格式, 比如 "png", 为 null 时和 {@link #source(BufferedImage, String)} 一样使用 "jpg"
+     * @return this
+     * @throws IOException IO错误
+     * @see #IMAGE_CACHE
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public Base64ImageBuilder source(Object key, BufferedImage image, String format) throws IOException {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(image, "Image source cannot be null.");
+        if (format == null) format = "jpg";
+        return source(IMAGE_CACHE.encode(key, image, format));
+    }
+
     @Override
     public Base64ImageBuilder location(int x, int y) {
         super.location(x, y);
@@ -180,14 +224,14 @@ public class Base64ImageBuilder extends ImageBuilder {
     }
 
     /**
-     * 使用此构建器的信息构建一个Base64图片
+     * 使用此构建器的信息构建一个Base64图片, 可以多次调用
      *
      * @return 构建好的图片
      * @throws IOException 流关闭错误
      */
     public VexBase64Image image() throws IOException {
         Objects.requireNonNull(source, "Base64 Image Source unset.");
-        try (InputStream source = this.source) {
+        try (InputStream source = this.source.open()) {
             if (hover == null) {
                 return new VexBase64Image(source, id, xOffset, yOffset, width, height);
             }
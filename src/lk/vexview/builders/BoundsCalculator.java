@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: BoundsCalculator.java@author: karlatemp@vip.qq.com: 2020/2/6 下午4:30@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+/**
+ * 计算组件右下角位置, 用于 {@link GuiBuilder#calculateSize()}.
+ * <p>
+ * 自定义的VexView组件可以注册自己的计算方式:
+ * <pre>{@code
+ * ComponentBounds.register(MyProgressBar.class,
+ *      bar -> BoundsCalculator.bounds(bar.getX() + bar.getWidth(), bar.getY() + bar.getHeight()));
+ * }</pre>
+ *
+ * @param <T> 组件类型
+ * @author Karlatemp
+ * @see ComponentBounds
+ * @since 1.0.6
+ */
+@FunctionalInterface
+@BuildersModuleVersion("1.0.6")
+public interface BoundsCalculator<T> {
+    /**
+     * 计算组件的右下角
+     *
+     * @param component 组件
+     * @return 使用 {@link #bounds(int, int)} 打包的位置
+     */
+    long calculate(T component);
+
+    /**
+     * 打包右下角位置
+     *
+     * @param right  组件最右端的x坐标
+     * @param bottom 组件最底端的y坐标
+     * @return 打包的位置
+     */
+    static long bounds(int right, int bottom) {
+        return MinecraftFontSizeCalculation.pack(right, bottom);
+    }
+
+    static int right(long bounds) {
+        return MinecraftFontSizeCalculation.width(bounds);
+    }
+
+    static int bottom(long bounds) {
+        return MinecraftFontSizeCalculation.height(bounds);
+    }
+}
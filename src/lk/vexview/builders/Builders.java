@@ -12,6 +12,23 @@ import org.bukkit.entity.Entity;
  * @since 1.0.0
  */
 public class Builders {
+    /**
+     * 在 VexView (或者使用构建器的插件) 的 onEnable 中调用, 做构建器需要的启动准备:
+     * 在后台线程加载字体表 ({@link MinecraftFontSizeCalculation#warmUp()})
+     *
+     * <pre>{@code
+     * public void onEnable() {
+     *     Builders.onEnable();
+     * }
+     * }</pre>
+     *
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public static void onEnable() {
+        MinecraftFontSizeCalculation.warmUp();
+    }
+
     public static TextBuilder texts() {
         return TextBuilder.builder();
     }
@@ -13,9 +13,8 @@ import lk.vexview.hud.VexButtonShow;
 import org.bukkit.map.MinecraftFont;
 
 import java.lang.invoke.MethodHandles;
-import java.util.Collections;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 
 /**
  * 这是一个按钮的构造器.
@@ -48,6 +47,11 @@ public class ButtonBuilder extends Locator {//@version 1.0.3: Extends Locator.
         protected boolean clickable;
         protected String unclickable;
 
+        static {
+            // @version 1.0.6: copy() 需要注册
+            ReflectionUtil.register(ClickableButtonBuilder.class, MethodHandles.lookup());
+        }
+
         @Override
         public ButtonBuilder clickable(boolean clickable) {
             this.clickable = clickable;
@@ -183,11 +187,9 @@ public class ButtonBuilder extends Locator {//@version 1.0.3: Extends Locator.
         if (text == null) {
             return size(leftOffset + rightOffset, topOffset + bottomOffset);
         } else {
-            AtomicInteger wid = new AtomicInteger();
-            AtomicInteger height = new AtomicInteger();
-            MinecraftFontSizeCalculation.calculatedSize(wid, height, Collections.singletonList(text));
-            return size(leftOffset + rightOffset + wid.get(),
-                    topOffset + bottomOffset + height.get());
+            long size = MinecraftFontSizeCalculation.measure(text);
+            return size(leftOffset + rightOffset + MinecraftFontSizeCalculation.width(size),
+                    topOffset + bottomOffset + MinecraftFontSizeCalculation.height(size));
         }
     }
 
@@ -278,7 +280,8 @@ public class ButtonBuilder extends Locator {//@version 1.0.3: Extends Locator.
                 background, focus, xOffset, yOffset,
                 width, height);
         if (width == 0 || height == 0) {
-            ChannelBuilder.plugin.getLogger().warning("Button [" + id + "] size is 0.");
+            // @version 1.0.6: 可能不在主线程
+            MainThread.log(Level.WARNING, "Button [" + id + "] size is 0.", null);
         }
         if (c != null) button.setFunction(c);
         if (hover != null) button.setHover(hover);
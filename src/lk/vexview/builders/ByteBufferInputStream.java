@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ByteBufferInputStream.java@author: karlatemp@vip.qq.com: 2020/2/8 下午2:40@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 读取 ByteBuffer 的流, 给 {@link ImageSource#file(java.nio.file.Path)} 使用
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) return 0;
+        if (!buffer.hasRemaining()) return -1;
+        len = Math.min(len, buffer.remaining());
+        buffer.get(b, off, len);
+        return len;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
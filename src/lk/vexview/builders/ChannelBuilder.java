@@ -9,14 +9,14 @@ import lk.vexview.api.VexViewAPI;
 import lk.vexview.chat.VexChatChannel;
 import lk.vexview.event.VexChannelChatEvent;
 import org.bukkit.Bukkit;
-import org.bukkit.event.EventPriority;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.plugin.RegisteredListener;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 
 /**
  * VexView Channel的快速构造器.
@@ -38,14 +38,23 @@ import java.util.function.Consumer;
  */
 public class ChannelBuilder implements Listener {
     static final Plugin plugin = Bukkit.getPluginManager().getPlugin("VexView");
+    private static volatile boolean attachWarned;
 
+    // @version 1.0.6: UUIDSet.asList(), contains 为 O(1), 注册后直接替换 VexChatChannel 中的列表
     protected List<UUID>
-            whites = new ArrayList<>(),
-            blacks = new ArrayList<>();
+            whites = new UUIDSet().asList(),
+            blacks = new UUIDSet().asList();
     protected boolean whiteEnable;
     protected String name;
     protected VexChatChannel channel;
     private Collection<Consumer<VexChannelChatEvent>> handlers = new ConcurrentLinkedQueue<>();
+    private Collection<Consumer<List<VexChannelChatEvent>>> batchHandlers = new ConcurrentLinkedQueue<>();
+    private volatile ChatEventQueue asyncQueue;
+    /**
+     * 交给 {@link ChatEventQueue#bind(Consumer)} 的监听, 同一个构建器多次 async 时是同一个对象
+     */
+    private final Consumer<List<VexChannelChatEvent>> batchDeliver = this::deliver;
+    private volatile ChannelMetrics metrics;
     private boolean eventHandlerRegistered;
 
     protected ChannelBuilder() {
@@ -77,6 +86,32 @@ public class ChannelBuilder implements Listener {
         return this;
     }
 
+    /**
+     * 批量加入黑名单
+     *
+     * @param targets 玩家UUID
+     * @return 构造器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ChannelBuilder black(Collection<? extends UUID> targets) {
+        blacks.addAll(targets);
+        return this;
+    }
+
+    /**
+     * 批量移出黑名单
+     *
+     * @param targets 玩家UUID
+     * @return 构造器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ChannelBuilder removeBlack(Collection<? extends UUID> targets) {
+        blacks.removeAll(targets);
+        return this;
+    }
+
     /**
      * 启动<strike>蓝洞</strike>白名单
      *
@@ -88,11 +123,7 @@ public class ChannelBuilder implements Listener {
             if (!channel.isWhiteEnable()) {
                 channel.setWhiteList(true);
             }
-            final List<UUID> whiteList = channel.getWhiteList();
-            if (whiteList != whites) {
-                whiteList.addAll(whites);
-                whites = whiteList;
-            }
+            whites = attach(channel.getWhiteList(), whites);
         }
         return this;
     }
@@ -109,6 +140,70 @@ public class ChannelBuilder implements Listener {
         return this;
     }
 
+    /**
+     * 批量加入白名单并启动白名单
+     *
+     * @param targets 玩家UUID
+     * @return 构造器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ChannelBuilder white(Collection<? extends UUID> targets) {
+        whites.addAll(targets);
+        enableWhiteList();
+        return this;
+    }
+
+    /**
+     * 批量移出白名单
+     *
+     * @param targets 玩家UUID
+     * @return 构造器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ChannelBuilder removeWhite(Collection<? extends UUID> targets) {
+        whites.removeAll(targets);
+        return this;
+    }
+
+    /**
+     * 玩家是否可以在此通道聊天 (不在黑名单中, 启用白名单时在白名单中)
+     *
+     * @param target 玩家UUID
+     * @return 是否可以聊天
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public boolean canChat(UUID target) {
+        if (blacks.contains(target)) return false;
+        return !whiteEnable || whites.contains(target);
+    }
+
+    /**
+     * 让通道使用构建器的名单. 能够替换 VexChatChannel 中的列表时两者共用一个 UUIDSet,
+     * 否则退回 1.0.5 的做法: 复制到通道的列表并改为使用通道的列表
+     */
+    private List<UUID> attach(List<UUID> current, List<UUID> values) {
+        if (current == values) return values;
+        Throwable error = null;
+        try {
+            if (ReflectionUtil.replaceValue(channel, current, values)) {
+                values.addAll(current);
+                return values;
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            error = e;
+        }
+        if (!attachWarned) {
+            attachWarned = true;
+            MainThread.log(Level.WARNING, "Cannot replace the white/black list of VexChatChannel, "
+                    + "ChannelBuilder will copy UUIDs into the channel's list instead.", error);
+        }
+        current.addAll(values);
+        return current;
+    }
+
     /**
      * 注册此Channel
      *
@@ -120,11 +215,10 @@ public class ChannelBuilder implements Listener {
         channel = new VexChatChannel(name);
         if (whiteEnable) {
             channel.setWhiteList(true);
-            channel.getWhiteList().addAll(whites);
+            whites = attach(channel.getWhiteList(), whites);
         }
-        final List<UUID> blackList = channel.getBlackList();
-        blackList.addAll(blacks);
-        blacks = blackList;
+        blacks = attach(channel.getBlackList(), blacks);
+        if (ChannelMetrics.ENABLED) metrics = new ChannelMetrics(name);
         VexViewAPI.addChatChannel(channel);
         eventInitialize();
         return this;
@@ -143,22 +237,113 @@ public class ChannelBuilder implements Listener {
         return this;
     }
 
+    /**
+     * 批量监听玩家在此通道聊天, 适合写入数据库/日志.
+     * 使用 {@link #async(ChatEventQueue)} 时每次收到一批事件, 否则每次收到一个事件
+     *
+     * @param handler 回调
+     * @return 构造器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ChannelBuilder onPlayerChatBatch(Consumer<List<VexChannelChatEvent>> handler) {
+        if (handler == null) return this;
+        this.batchHandlers.add(handler);
+        eventInitialize();
+        return this;
+    }
+
+    /**
+     * 把聊天事件放入队列, 在其他线程批量执行所有监听, 监听不再占用主线程.
+     * 传入 null 恢复为在主线程直接执行
+     *
+     * @param queue 队列, 一个队列只能给一个通道使用
+     * @return 构造器本身
+     * @see ChatEventQueue
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ChannelBuilder async(ChatEventQueue queue) {
+        if (queue != null) queue.bind(batchDeliver);
+        this.asyncQueue = queue;
+        return this;
+    }
+
+    @BuildersModuleVersion("1.0.6")
+    public ChatEventQueue getAsyncQueue() {
+        return asyncQueue;
+    }
+
+    // @version 1.0.6: 所有通道共用 ChannelDispatcher 的一个监听, 不再每个通道注册一个 RegisteredListener
     private synchronized void eventInitialize() {
         if (eventHandlerRegistered) return;
         if (channel == null) return;
-        if (handlers.isEmpty()) return;
-        VexChannelChatEvent.getHandlerList().register(new RegisteredListener(
-                this, (listener, event) -> {
-            if (event instanceof VexChannelChatEvent) {
-                VexChannelChatEvent event0 = (VexChannelChatEvent) event;
-                if (event0.getChannel() == channel) {
-                    for (Consumer<VexChannelChatEvent> handler : handlers) {
-                        handler.accept(event0);
-                    }
+        // @version 1.0.6: 启用统计时没有监听也需要接收事件
+        if (handlers.isEmpty() && batchHandlers.isEmpty() && metrics == null) return;
+        ChannelDispatcher.register(channel, this);
+        eventHandlerRegistered = true;
+    }
+
+    void dispatch(VexChannelChatEvent event) {
+        ChannelMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.message();
+            Player player = event.getPlayer();
+            if (player != null && !canChat(player.getUniqueId())) metrics.blocked();
+        }
+        ChatEventQueue queue = asyncQueue;
+        if (queue != null) {
+            if (!queue.offer(event) && metrics != null) metrics.rejected();
+        } else {
+            deliver(Collections.singletonList(event));
+        }
+    }
+
+    private void deliver(List<VexChannelChatEvent> events) {
+        if (handlers.isEmpty() && batchHandlers.isEmpty()) return;
+        ChannelMetrics metrics = this.metrics;
+        long start = metrics == null ? 0 : System.nanoTime();
+        try {
+            for (VexChannelChatEvent event : events) {
+                for (Consumer<VexChannelChatEvent> handler : handlers) {
+                    handler.accept(event);
                 }
             }
-        }, EventPriority.MONITOR, plugin, false));
-        eventHandlerRegistered = true;
+            for (Consumer<List<VexChannelChatEvent>> handler : batchHandlers) {
+                handler.accept(events);
+            }
+        } finally {
+            if (metrics != null) metrics.handlerTimes().record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 此通道的聊天统计, 注册前或者使用 {@code -Dvexview.builders.chat-metrics=false} 关闭时为 null
+     *
+     * @return 统计
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ChannelMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 停止监听此通道的聊天并移除所有 {@link #onPlayerChat(Consumer)}/{@link #onPlayerChatBatch(Consumer)} 添加的监听.
+     * 通道本身仍然在 VexView 中, 之后再调用 onPlayerChat 会重新开始监听
+     *
+     * @return 构造器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public synchronized ChannelBuilder unregister() {
+        if (eventHandlerRegistered) {
+            ChannelDispatcher.unregister(channel);
+            eventHandlerRegistered = false;
+        }
+        handlers.clear();
+        batchHandlers.clear();
+        return this;
     }
 
     // @version 1.0.2
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ChannelDispatcher.java@author: karlatemp@vip.qq.com: 2020/2/9 上午10:20@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import lk.vexview.chat.VexChatChannel;
+import lk.vexview.event.VexChannelChatEvent;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.RegisteredListener;
+
+import java.util.*;
+
+/**
+ * 所有 {@link ChannelBuilder} 共用的聊天事件监听.
+ * <p>
+ * 1.0.5 及以前每个通道注册一个 {@link RegisteredListener}, 每条聊天消息都要经过所有通道的监听.
+ * 现在只注册一个监听, 按通道对象查表找到对应的构建器.
+ * <p>
+ * 聊天事件在主线程中查表, 注册/取消注册很少发生, 所以使用写时复制, 查表不需要加锁
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+final class ChannelDispatcher implements Listener {
+    private static final ChannelDispatcher INSTANCE = new ChannelDispatcher();
+    private static volatile Map<VexChatChannel, ChannelBuilder> routes = Collections.emptyMap();
+    private static RegisteredListener listener;
+
+    private ChannelDispatcher() {
+    }
+
+    static synchronized void register(VexChatChannel channel, ChannelBuilder builder) {
+        Map<VexChatChannel, ChannelBuilder> copy = new IdentityHashMap<>(routes);
+        copy.put(channel, builder);
+        routes = copy;
+        if (listener == null) {
+            listener = new RegisteredListener(INSTANCE, (ignore, event) -> {
+                if (event instanceof VexChannelChatEvent) {
+                    dispatch((VexChannelChatEvent) event);
+                }
+            }, EventPriority.MONITOR, ChannelBuilder.plugin, false);
+            VexChannelChatEvent.getHandlerList().register(listener);
+        }
+    }
+
+    /**
+     * 移除通道的路由, 没有通道时同时移除监听
+     *
+     * @param channel 通道
+     * @return 是否移除了路由
+     */
+    static synchronized boolean unregister(VexChatChannel channel) {
+        if (!routes.containsKey(channel)) return false;
+        Map<VexChatChannel, ChannelBuilder> copy = new IdentityHashMap<>(routes);
+        copy.remove(channel);
+        routes = copy.isEmpty() ? Collections.emptyMap() : copy;
+        if (copy.isEmpty() && listener != null) {
+            VexChannelChatEvent.getHandlerList().unregister(listener);
+            listener = null;
+        }
+        return true;
+    }
+
+    static void dispatch(VexChannelChatEvent event) {
+        ChannelBuilder builder = routes.get(event.getChannel());
+        if (builder != null) builder.dispatch(event);
+    }
+
+    static List<ChannelMetrics> metrics() {
+        List<ChannelMetrics> metrics = new ArrayList<>();
+        for (ChannelBuilder builder : routes.values()) {
+            ChannelMetrics value = builder.getMetrics();
+            if (value != null) metrics.add(value);
+        }
+        return metrics;
+    }
+
+    static int size() {
+        return routes.size();
+    }
+}
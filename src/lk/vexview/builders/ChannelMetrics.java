@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ChannelMetrics.java@author: karlatemp@vip.qq.com: 2020/2/9 下午8:40@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * {@link ChannelBuilder} 注册的通道的聊天统计, 用于找出占用聊天处理时间最多的通道.
+ * <p>
+ * 记录消息数, 最近一分钟的每秒消息数, 监听执行时间 ({@link LatencyHistogram}),
+ * 被黑名单/白名单拦截的消息数, 以及 {@link ChatEventQueue} 队列满时丢弃的消息数.
+ * 可以用 {@code -Dvexview.builders.chat-metrics=false} 关闭
+ *
+ * <pre>{@code
+ * for (ChannelMetrics.Snapshot s : ChannelMetrics.snapshots()) {
+ *     getLogger().info(s.toString());
+ * }
+ * ChannelMetrics.dumpEvery(5, TimeUnit.MINUTES);
+ * }</pre>
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class ChannelMetrics {
+    public static final boolean ENABLED = !"false".equals(System.getProperty("vexview.builders.chat-metrics"));
+    private static final int WINDOW = 60;
+
+    private final String name;
+    private final LongAdder messages = new LongAdder(), blocked = new LongAdder(), rejected = new LongAdder();
+    private final LatencyHistogram handlerTimes = new LatencyHistogram();
+    /**
+     * 最近 {@link #WINDOW} 秒每秒的消息数. 每个位置的高 32 位为对应的秒, 低 32 位为消息数, 一起原子更新
+     */
+    private final AtomicLongArray perSecond = new AtomicLongArray(WINDOW);
+
+    ChannelMetrics(String name) {
+        this.name = name;
+    }
+
+    void message() {
+        messages.increment();
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        int index = (int) Math.floorMod(second, (long) WINDOW);
+        long stamp = (long) (int) second << 32;
+        long packed;
+        do {
+            packed = perSecond.get(index);
+        } while (!perSecond.compareAndSet(index, packed,
+                (packed & 0xFFFFFFFF00000000L) == stamp ? packed + 1 : stamp | 1));
+    }
+
+    void blocked() {
+        blocked.increment();
+    }
+
+    void rejected() {
+        rejected.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 每次执行监听的耗时 (异步时为每一批)
+     */
+    public LatencyHistogram handlerTimes() {
+        return handlerTimes;
+    }
+
+    /**
+     * @return 最近一分钟 (不含当前这一秒) 平均每秒的消息数
+     */
+    public double messagesPerSecond() {
+        int now = (int) TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long sum = 0;
+        for (int i = 0; i < WINDOW; i++) {
+            long packed = perSecond.get(i);
+            int age = now - (int) (packed >>> 32);
+            if (age >= 1 && age <= WINDOW) sum += packed & 0xFFFFFFFFL;
+        }
+        return sum / (double) WINDOW;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * @return 所有正在监听的通道的统计, 按消息总数从多到少排序
+     */
+    public static List<Snapshot> snapshots() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (ChannelMetrics metrics : ChannelDispatcher.metrics()) {
+            snapshots.add(metrics.snapshot());
+        }
+        snapshots.sort(Comparator.comparingLong(Snapshot::getMessages).reversed());
+        return snapshots;
+    }
+
+    /**
+     * 定期把 {@link #snapshots()} 输出到 VexView 的日志.
+     * <p>
+     * 在 {@link ChatEventQueue#DEFAULT_EXECUTOR} 上执行, 与默认的异步聊天处理共用一个线程, 输出时聊天处理会等待
+     *
+     * @param period 间隔
+     * @param unit   单位
+     * @return 用于取消的 Future
+     */
+    public static ScheduledFuture<?> dumpEvery(long period, TimeUnit unit) {
+        return ChatEventQueue.DEFAULT_EXECUTOR.scheduleAtFixedRate(() -> {
+            List<Snapshot> snapshots = snapshots();
+            if (snapshots.isEmpty()) return;
+            StringBuilder builder = new StringBuilder("Chat channel metrics:");
+            for (Snapshot snapshot : snapshots) {
+                builder.append("\n  ").append(snapshot);
+            }
+            MainThread.log(Level.INFO, builder.toString(), null);
+        }, period, period, unit);
+    }
+
+    /**
+     * 某一时刻的统计
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final long messages, blocked, rejected, handled, meanNanos, p50Nanos, p99Nanos, maxNanos;
+        private final double messagesPerSecond;
+
+        Snapshot(ChannelMetrics metrics) {
+            LatencyHistogram times = metrics.handlerTimes;
+            name = metrics.name;
+            messages = metrics.messages.sum();
+            blocked = metrics.blocked.sum();
+            rejected = metrics.rejected.sum();
+            messagesPerSecond = metrics.messagesPerSecond();
+            handled = times.count();
+            meanNanos = times.mean();
+            p50Nanos = times.percentile(50);
+            p99Nanos = times.percentile(99);
+            maxNanos = times.max();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getMessages() {
+            return messages;
+        }
+
+        /**
+         * @return 发送者在黑名单中或者不在启用的白名单中的消息数
+         */
+        public long getBlocked() {
+            return blocked;
+        }
+
+        /**
+         * @return 异步队列满时丢弃的消息数
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        public double getMessagesPerSecond() {
+            return messagesPerSecond;
+        }
+
+        /**
+         * @return 执行监听的次数
+         */
+        public long getHandled() {
+            return handled;
+        }
+
+        public long getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: messages=%d (%.2f/s) blocked=%d rejected=%d handler mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+                    name, messages, messagesPerSecond, blocked, rejected,
+                    meanNanos / 1e6, p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ChatEventQueue.java@author: karlatemp@vip.qq.com: 2020/2/9 下午4:35@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import lk.vexview.event.VexChannelChatEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * 在其他线程批量执行聊天监听的队列, 给 {@link ChannelBuilder#async(ChatEventQueue)} 使用.
+ * <p>
+ * 聊天事件在主线程中放入有界的环形队列 (多生产者, 单消费者), 由 {@link #executor(ScheduledExecutorService)} 中的任务批量取出并执行监听,
+ * 比较慢的监听 (记录日志, 审核...) 不再占用主线程的 tick 时间.
+ * <ul>
+ *     <li>队列中的事件达到 {@link #batchSize(int)} 时立即处理</li>
+ *     <li>否则在第一个事件放入后 {@link #flushInterval(long, TimeUnit)} 处理</li>
+ *     <li>队列满时按照 {@link #overflow(Overflow)} 处理</li>
+ * </ul>
+ * 监听在其他线程执行, 此时事件已经分发完毕, 修改/取消事件没有效果. 需要访问 Bukkit 时使用 {@link MainThread}
+ *
+ * <pre>{@code
+ * ChannelBuilder.builder().name("全服").register()
+ *      .async(new ChatEventQueue(4096).batchSize(128).flushInterval(200, TimeUnit.MILLISECONDS))
+ *      .onPlayerChatBatch(batch -> database.insert(batch));
+ * }</pre>
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class ChatEventQueue {
+    /**
+     * 默认的执行线程, 所有没有指定 executor 的队列共用
+     */
+    public static final ScheduledExecutorService DEFAULT_EXECUTOR;
+
+    static {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "VexView-Builders chat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        DEFAULT_EXECUTOR = executor;
+    }
+
+    /**
+     * 队列满时的处理方式
+     */
+    public enum Overflow {
+        /**
+         * 丢弃新的事件, 计入 {@link #dropped()}
+         */
+        DROP,
+        /**
+         * 在放入事件的线程 (通常是主线程) 处理队列中已有的事件, 然后放入新的事件.
+         * 监听仍然按顺序执行, 同一时间只在一个线程执行; 其他线程正在处理时等待
+         */
+        CALLER_RUNS,
+        /**
+         * 等待队列有空位, 会阻塞主线程
+         */
+        BLOCK
+    }
+
+    private final int mask;
+    private final VexChannelChatEvent[] events;
+    private final long[] times;
+    /**
+     * 每个位置的序号, 等于 tail 时可以写入, 等于 head + 1 时可以读取
+     */
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * scheduled: 已经提交了延迟的 drain, 还没有开始执行; flushing: 已经提交了立即执行的 drain, 还没有开始执行;
+     * running: 正在 drain. 提交的任务开始执行时先清除自己的标记, 之后没有取得 running 时由正在执行的 drain 负责剩下的事件
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean(), flushing = new AtomicBoolean(),
+            running = new AtomicBoolean();
+    private final LongAdder offered = new LongAdder(), dropped = new LongAdder(),
+            processed = new LongAdder(), batches = new LongAdder(),
+            handlerNanos = new LongAdder(), waitNanos = new LongAdder();
+    private final AtomicLong maxDepth = new AtomicLong(), maxHandlerNanos = new AtomicLong();
+
+    private volatile int batchSize = 64;
+    private volatile long flushNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    private volatile Overflow overflow = Overflow.DROP;
+    private volatile ScheduledExecutorService executor = DEFAULT_EXECUTOR;
+    private volatile Consumer<List<VexChannelChatEvent>> handler;
+
+    /**
+     * @param capacity 队列容量, 向上取整为2的幂
+     */
+    public ChatEventQueue(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity <= 0");
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        events = new VexChannelChatEvent[size];
+        times = new long[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+    }
+
+    public ChatEventQueue batchSize(int batchSize) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize <= 0");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public ChatEventQueue flushInterval(long interval, TimeUnit unit) {
+        this.flushNanos = Math.max(0, unit.toNanos(interval));
+        return this;
+    }
+
+    public ChatEventQueue overflow(Overflow overflow) {
+        this.overflow = Objects.requireNonNull(overflow, "overflow");
+        return this;
+    }
+
+    public ChatEventQueue executor(ScheduledExecutorService executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        return this;
+    }
+
+    /**
+     * 由 {@link ChannelBuilder#async(ChatEventQueue)} 调用, 一个队列只能给一个通道使用
+     */
+    synchronized void bind(Consumer<List<VexChannelChatEvent>> handler) {
+        if (this.handler != null && this.handler != handler) {
+            throw new IllegalStateException("ChatEventQueue already used by another channel");
+        }
+        this.handler = handler;
+    }
+
+    /**
+     * 放入事件, 队列满时按照 {@link #overflow(Overflow)} 处理
+     *
+     * @param event 事件
+     * @return 事件是否被放入队列或者直接执行
+     */
+    public boolean offer(VexChannelChatEvent event) {
+        Objects.requireNonNull(event, "event");
+        offered.increment();
+        while (!enqueue(event)) {
+            switch (overflow) {
+                case CALLER_RUNS:
+                    // 经过 drain 处理, 保证单消费者与事件顺序
+                    if (!drainUpTo(capacity())) LockSupport.parkNanos(100_000);
+                    continue;
+                case BLOCK:
+                    flushNow();
+                    LockSupport.parkNanos(100_000);
+                    continue;
+                default:
+                    dropped.increment();
+                    return false;
+            }
+        }
+        long depth = depth();
+        long max;
+        while (depth > (max = maxDepth.get()) && !maxDepth.compareAndSet(max, depth)) {
+            // retry
+        }
+        wakeUp(depth);
+        return true;
+    }
+
+    /**
+     * 队列中有事件时安排处理: 达到 batchSize 时立即处理, 否则在 flushInterval 后处理
+     */
+    private void wakeUp(long depth) {
+        if (depth >= batchSize) {
+            flushNow();
+        } else if (depth > 0 && scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::scheduledDrain, flushNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean enqueue(VexChannelChatEvent event) {
+        for (; ; ) {
+            long t = tail.get();
+            int index = (int) t & mask;
+            long difference = sequences.get(index) - t;
+            if (difference == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    events[index] = event;
+                    times[index] = System.nanoTime();
+                    sequences.lazySet(index, t + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 立即处理队列, 已经在处理或者已经提交时不再提交
+     */
+    private void flushNow() {
+        if (!running.get() && flushing.compareAndSet(false, true)) {
+            executor.execute(this::flushDrain);
+        }
+    }
+
+    private void scheduledDrain() {
+        scheduled.set(false);
+        drainUpTo(Long.MAX_VALUE);
+    }
+
+    private void flushDrain() {
+        flushing.set(false);
+        drainUpTo(Long.MAX_VALUE);
+    }
+
+    /**
+     * 单消费者: 同一时间只有一个 drain 在执行
+     *
+     * @param limit 最多处理的事件数
+     * @return 是否由当前线程执行了处理
+     */
+    private boolean drainUpTo(long limit) {
+        if (!running.compareAndSet(false, true)) {
+            // 正在执行的 drain 结束后会检查队列; 如果它在此期间已经结束, 重新安排
+            if (!running.get()) wakeUp(depth());
+            return false;
+        }
+        try {
+            int batchSize = this.batchSize;
+            long drained = 0;
+            while (drained < limit) {
+                List<VexChannelChatEvent> batch = new ArrayList<>(Math.min(batchSize, mask + 1));
+                long h = head;
+                while (batch.size() < batchSize && drained + batch.size() < limit) {
+                    int index = (int) h & mask;
+                    if (sequences.get(index) != h + 1) break;
+                    batch.add(events[index]);
+                    waitNanos.add(System.nanoTime() - times[index]);
+                    events[index] = null;
+                    sequences.lazySet(index, h + mask + 1);
+                    head = ++h;
+                }
+                if (batch.isEmpty()) break;
+                drained += batch.size();
+                deliver(batch);
+            }
+        } finally {
+            running.set(false);
+        }
+        // 执行期间放入的事件, 以及没有取得 running 的 drain 留下的事件
+        wakeUp(depth());
+        return true;
+    }
+
+    private void deliver(List<VexChannelChatEvent> batch) {
+        Consumer<List<VexChannelChatEvent>> handler = this.handler;
+        long start = System.nanoTime();
+        try {
+            if (handler != null) handler.accept(batch);
+        } catch (Throwable error) {
+            MainThread.log(Level.SEVERE, "Error in handling chat events", error);
+        }
+        long used = System.nanoTime() - start, max;
+        handlerNanos.add(used);
+        while (used > (max = maxHandlerNanos.get()) && !maxHandlerNanos.compareAndSet(max, used)) {
+            // retry
+        }
+        processed.add(batch.size());
+        batches.increment();
+    }
+
+    /**
+     * @return 当前队列中的事件数
+     */
+    public long depth() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long maxDepth() {
+        return maxDepth.get();
+    }
+
+    public long offered() {
+        return offered.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public long processed() {
+        return processed.sum();
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return 每批事件执行监听的平均时间 (纳秒)
+     */
+    public long averageHandlerNanos() {
+        long batches = batches();
+        return batches == 0 ? 0 : handlerNanos.sum() / batches;
+    }
+
+    public long maxHandlerNanos() {
+        return maxHandlerNanos.get();
+    }
+
+    /**
+     * @return 事件从放入队列到被取出的平均时间 (纳秒)
+     */
+    public long averageWaitNanos() {
+        long processed = processed();
+        return processed == 0 ? 0 : waitNanos.sum() / processed;
+    }
+}
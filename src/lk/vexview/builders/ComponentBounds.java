@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ComponentBounds.java@author: karlatemp@vip.qq.com: 2020/2/6 下午4:30@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import lk.vexview.gui.components.*;
+import lk.vexview.gui.components.expand.VexBase64Image;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * {@link BoundsCalculator} 的注册表.
+ * <p>
+ * 组件使用离自己最近的已注册父类(或接口)的计算方式, 查找结果按具体类缓存 ({@link ClassValue}).
+ * 没有任何计算方式的组件会输出一次警告并且不影响GUI大小
+ *
+ * @author Karlatemp
+ * @see BoundsCalculator
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class ComponentBounds {
+    private static final Map<Class<?>, BoundsCalculator<?>> registered = new ConcurrentHashMap<>();
+    private static volatile ClassValue<BoundsCalculator<Object>> resolved = newResolver();
+
+    static {
+        register(VexSlot.class, slot -> BoundsCalculator.bounds(slot.getX() + 16, slot.getY() + 16));
+        register(VexText.class, text -> {
+            long size = MinecraftFontSizeCalculation.measureBlock(text.getText());
+            return BoundsCalculator.bounds(
+                    (int) (text.getX() + Math.abs(text.getScale() * MinecraftFontSizeCalculation.width(size))),
+                    (int) (text.getY() + Math.abs(text.getScale() * MinecraftFontSizeCalculation.height(size)))
+            );
+        });
+        register(VexScrollingList.class, list -> BoundsCalculator.bounds(
+                list.getX() + list.getWidth(), list.getY() + list.getHeight()));
+        register(VexImage.class, image -> BoundsCalculator.bounds(
+                image.getX() + image.getXs(), image.getY() + image.getYs()));
+        register(VexButton.class, button -> BoundsCalculator.bounds(
+                button.getX() + button.getW(), button.getY() + button.getH()));
+        register(VexBase64Image.class, image -> {
+            try {
+                // @version 1.0.6: 直接读取文件头, 高度不再使用 getWidth(0)
+                long size = ImageSizeProbe.size(image.getBase64());
+                if (size != ImageSizeProbe.UNKNOWN) {
+                    return BoundsCalculator.bounds(
+                            image.getX() + MinecraftFontSizeCalculation.width(size),
+                            image.getY() + MinecraftFontSizeCalculation.height(size));
+                }
+            } catch (IOException error) {
+                MainThread.log(Level.WARNING,
+                        "Base64 Image[" + image.getId() + "] not a valid image.", error);
+            }
+            return 0;
+        });
+        register(VexTextField.class, field -> BoundsCalculator.bounds(
+                field.getX() + field.getWidth(), field.getY() + field.getHeight()));
+        register(VexEntityDraw.class, draw -> BoundsCalculator.bounds(
+                draw.getX() + (draw.getScale() / 2), draw.getY()));
+        register(VexTextArea.class, area -> BoundsCalculator.bounds(
+                area.getX() + area.getWidth(), area.getY() + area.getHeight()));
+    }
+
+    private ComponentBounds() {
+    }
+
+    /**
+     * 注册一个组件的计算方式, 会覆盖同一个类之前的注册
+     *
+     * @param type       组件类型, 子类也会使用此计算方式
+     * @param calculator 计算方式
+     * @param <T>        组件类型
+     */
+    public static <T> void register(Class<T> type, BoundsCalculator<? super T> calculator) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(calculator, "calculator");
+        registered.put(type, calculator);
+        resolved = newResolver();
+    }
+
+    /**
+     * 获取组件使用的计算方式
+     *
+     * @param type 组件类型
+     * @return 计算方式, 没有注册的组件返回一个输出警告的空计算
+     */
+    public static BoundsCalculator<Object> calculator(Class<?> type) {
+        return resolved.get(type);
+    }
+
+    /**
+     * 计算组件的右下角
+     *
+     * @param component 组件
+     * @return 打包的位置, 使用 {@link BoundsCalculator#right(long)}/{@link BoundsCalculator#bottom(long)} 读取
+     */
+    public static long calculate(Object component) {
+        return resolved.get(component.getClass()).calculate(component);
+    }
+
+    /**
+     * 计算所有组件的最右端与最底端, 不小于 0
+     *
+     * @param components 组件
+     * @return 打包的位置
+     */
+    public static long calculate(Collection<?> components) {
+        final ClassValue<BoundsCalculator<Object>> resolved = ComponentBounds.resolved;
+        int right = 0, bottom = 0;
+        for (Object component : components) {
+            long bounds = resolved.get(component.getClass()).calculate(component);
+            right = Math.max(right, BoundsCalculator.right(bounds));
+            bottom = Math.max(bottom, BoundsCalculator.bottom(bounds));
+        }
+        return BoundsCalculator.bounds(right, bottom);
+    }
+
+    private static ClassValue<BoundsCalculator<Object>> newResolver() {
+        return new ClassValue<BoundsCalculator<Object>>() {
+            @Override
+            protected BoundsCalculator<Object> computeValue(Class<?> type) {
+                BoundsCalculator<Object> calculator = find(type);
+                if (calculator != null) return calculator;
+                return new BoundsCalculator<Object>() {
+                    private volatile boolean warned;
+
+                    @Override
+                    public long calculate(Object component) {
+                        if (!warned) {
+                            warned = true;
+                            MainThread.log(Level.WARNING, "No BoundsCalculator registered for "
+                                    + type.getName() + ", it will be ignored in calculateSize(). "
+                                    + "Use ComponentBounds.register to register one.", null);
+                        }
+                        return 0;
+                    }
+                };
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BoundsCalculator<Object> find(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            BoundsCalculator<?> calculator = registered.get(c);
+            if (calculator != null) return (BoundsCalculator<Object>) calculator;
+        }
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Class<?> itf : c.getInterfaces()) {
+                BoundsCalculator<Object> calculator = find(itf);
+                if (calculator != null) return calculator;
+            }
+        }
+        return null;
+    }
+}
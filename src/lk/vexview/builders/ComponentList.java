@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ComponentList.java@author: karlatemp@vip.qq.com: 2020/2/7 上午10:12@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 构建器使用的组件列表.
+ * <p>
+ * 以数组储存, 支持随机访问, 可以直接交给 VexGui 使用. 默认只允许一个线程写入,
+ * 开启 {@link #threadSafe(boolean)} 后所有操作都会加锁, 遍历时使用快照, 与以前的 ConcurrentLinkedQueue 一样不会抛出
+ * {@link ConcurrentModificationException}.
+ * <p>
+ * 可以用 {@code -Dvexview.builders.concurrent=true} 让构建器默认使用线程安全模式
+ *
+ * <pre>{@code
+ * GuiBuilder builder = GuiBuilder.builder().threadSafe(true);
+ * players.parallelStream().forEach(p -> builder.text(...));
+ * }</pre>
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class ComponentList<T> extends AbstractList<T> implements RandomAccess {
+    static final boolean CONCURRENT = Boolean.getBoolean("vexview.builders.concurrent");
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] elements;
+    private int size;
+    private volatile boolean threadSafe;
+
+    public ComponentList() {
+        this(0);
+    }
+
+    public ComponentList(int capacity) {
+        elements = capacity == 0 ? EMPTY : new Object[capacity];
+        threadSafe = CONCURRENT;
+    }
+
+    public ComponentList(Collection<? extends T> components) {
+        this(0);
+        addAll(components);
+    }
+
+    /**
+     * 开启/关闭线程安全模式
+     *
+     * @param threadSafe 是否允许多个线程同时写入
+     * @return 列表本身
+     */
+    public ComponentList<T> threadSafe(boolean threadSafe) {
+        synchronized (this) {
+            this.threadSafe = threadSafe;
+        }
+        return this;
+    }
+
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    /**
+     * 确保可以放下 size 个组件, 批量添加前调用可以避免多次扩容
+     *
+     * @param size 组件数量
+     */
+    public void ensureCapacity(int size) {
+        if (threadSafe) {
+            synchronized (this) {
+                grow(size);
+            }
+        } else grow(size);
+    }
+
+    private void grow(int minimum) {
+        Object[] elements = this.elements;
+        if (minimum <= elements.length) return;
+        int capacity = Math.max(Math.max(minimum, 10), elements.length + (elements.length >> 1));
+        this.elements = Arrays.copyOf(elements, capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get0(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return (T) elements[index];
+    }
+
+    @Override
+    public T get(int index) {
+        if (threadSafe) {
+            synchronized (this) {
+                return get0(index);
+            }
+        }
+        return get0(index);
+    }
+
+    private T set0(int index, T element) {
+        T old = get0(index);
+        elements[index] = element;
+        return old;
+    }
+
+    @Override
+    public T set(int index, T element) {
+        if (threadSafe) {
+            synchronized (this) {
+                return set0(index, element);
+            }
+        }
+        return set0(index, element);
+    }
+
+    private void add0(int index, T element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        modCount++;
+        grow(size + 1);
+        if (index != size) System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+    }
+
+    @Override
+    public boolean add(T element) {
+        if (threadSafe) {
+            synchronized (this) {
+                add0(size, element);
+            }
+        } else add0(size, element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        if (threadSafe) {
+            synchronized (this) {
+                add0(index, element);
+            }
+        } else add0(index, element);
+    }
+
+    private boolean addAll0(Object[] values) {
+        if (values.length == 0) return false;
+        modCount++;
+        grow(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        Object[] values = c.toArray();
+        if (threadSafe) {
+            synchronized (this) {
+                return addAll0(values);
+            }
+        }
+        return addAll0(values);
+    }
+
+    private T remove0(int index) {
+        T old = get0(index);
+        modCount++;
+        int moved = size - index - 1;
+        if (moved > 0) System.arraycopy(elements, index + 1, elements, index, moved);
+        elements[--size] = null;
+        return old;
+    }
+
+    @Override
+    public T remove(int index) {
+        if (threadSafe) {
+            synchronized (this) {
+                return remove0(index);
+            }
+        }
+        return remove0(index);
+    }
+
+    private void clear0() {
+        modCount++;
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public void clear() {
+        if (threadSafe) {
+            synchronized (this) {
+                clear0();
+            }
+        } else clear0();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean removeIf0(Predicate<? super T> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Object element = elements[i];
+            if (!filter.test((T) element)) elements[kept++] = element;
+        }
+        if (kept == size) return false;
+        modCount++;
+        Arrays.fill(elements, kept, size, null);
+        size = kept;
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter, "filter");
+        if (threadSafe) {
+            synchronized (this) {
+                return removeIf0(filter);
+            }
+        }
+        return removeIf0(filter);
+    }
+
+    @Override
+    public int size() {
+        if (threadSafe) {
+            synchronized (this) {
+                return size;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Object[] toArray() {
+        if (threadSafe) {
+            synchronized (this) {
+                return Arrays.copyOf(elements, size);
+            }
+        }
+        return Arrays.copyOf(elements, size);
+    }
+
+    private boolean removeElement0(Object element, boolean identity) {
+        for (int i = 0; i < size; i++) {
+            Object value = elements[i];
+            if (identity ? value == element : Objects.equals(value, element)) {
+                remove0(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        if (threadSafe) {
+            synchronized (this) {
+                return removeElement0(element, false);
+            }
+        }
+        return removeElement0(element, false);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c, "c");
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c, "c");
+        return removeIf(element -> !c.contains(element));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<T> iterator() {
+        if (threadSafe) {
+            // 与 ConcurrentLinkedQueue 一样, 遍历期间的修改不影响这次遍历, remove() 移除遍历到的那个组件
+            Object[] snapshot = toArray();
+            return new Iterator<T>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < snapshot.length;
+                }
+
+                @Override
+                public T next() {
+                    if (index >= snapshot.length) throw new NoSuchElementException();
+                    return (T) snapshot[index++];
+                }
+
+                @Override
+                public void remove() {
+                    if (index == 0) throw new IllegalStateException();
+                    synchronized (ComponentList.this) {
+                        removeElement0(snapshot[index - 1], true);
+                    }
+                }
+            };
+        }
+        return super.iterator();
+    }
+
+    @Override
+    public ListIterator<T> listIterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * 线程安全模式下遍历快照, 不支持通过 ListIterator 修改
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ListIterator<T> listIterator(int index) {
+        if (threadSafe) {
+            return (ListIterator<T>) Collections.unmodifiableList(Arrays.asList(toArray())).listIterator(index);
+        }
+        return super.listIterator(index);
+    }
+}
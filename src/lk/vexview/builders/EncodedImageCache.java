@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: EncodedImageCache.java@author: karlatemp@vip.qq.com: 2020/2/8 上午11:20@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 编码后图片的缓存, 给 {@link Base64ImageBuilder#source(Object, BufferedImage, String)} 使用.
+ * <p>
+ * 同一张头像/图标出现在很多GUI和HUD中时只需要 {@link ImageIO#write} 一次.
+ * key 可以是图片本身 (按对象判断, 不阻止图片被回收, 回收后在下次访问缓存时移除), 也可以是调用者提供的key;
+ * 内容相同的编码结果共用一个 byte[].
+ * <p>
+ * 按照字节数淘汰最久没有使用的图片, 默认 16MB, 可以用 {@code -Dvexview.builders.image-cache=字节数} 或者 {@link #maximumBytes(long)} 修改, 0 为关闭缓存
+ * <p>
+ * 缓存的 byte[] 会被多个构建器共享, 不要修改其中的内容
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class EncodedImageCache {
+    private final LinkedHashMap<Object, Payload> cache = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * 按内容索引的编码结果, 只包含 {@link #cache} 中还在使用的 byte[]
+     */
+    private final Map<Payload, Payload> payloads = new HashMap<>();
+    /**
+     * 已经被回收的图片的 {@link ImageKey}
+     */
+    private final ReferenceQueue<BufferedImage> collected = new ReferenceQueue<>();
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+    private long bytes;
+    private volatile long maximumBytes;
+
+    public EncodedImageCache(long maximumBytes) {
+        this.maximumBytes = Math.max(0, maximumBytes);
+    }
+
+    /**
+     * 修改缓存的最大字节数, 多出来的会被立即移除
+     *
+     * @param maximumBytes 最大字节数, 0 为关闭缓存
+     * @return 缓存本身
+     */
+    public EncodedImageCache maximumBytes(long maximumBytes) {
+        synchronized (cache) {
+            this.maximumBytes = Math.max(0, maximumBytes);
+            trim();
+        }
+        return this;
+    }
+
+    public long maximumBytes() {
+        return maximumBytes;
+    }
+
+    /**
+     * 按照调用者提供的key和格式缓存, 比如玩家的UUID; 同一个key的不同格式分别缓存.
+     * key 是 {@link BufferedImage} 时按照图片对象缓存, 图片内容被修改后需要 {@link #invalidate(Object)}
+     *
+     * @param key    key, 需要实现 equals/hashCode, 或者图片本身
+     * @param image  图片, 只在没有命中缓存时使用
+     * @param format 格式, 比如 "png"
+     * @return 编码后的图片
+     * @throws IOException 编码错误
+     */
+    public byte[] encode(Object key, BufferedImage image, String format) throws IOException {
+        if (maximumBytes == 0) return write(image, format);
+        boolean identity = key instanceof BufferedImage;
+        Payload cached;
+        synchronized (cache) {
+            expunge();
+            cached = cache.get(identity ? new ImageKey((BufferedImage) key, format, null) : new FormatKey(key, format));
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached.data;
+        }
+        misses.increment();
+        Payload payload = new Payload(write(image, format));
+        synchronized (cache) {
+            expunge();
+            Payload shared = payloads.get(payload);
+            if (shared == null) {
+                payloads.put(payload, payload);
+                bytes += payload.data.length;
+                shared = payload;
+            }
+            shared.references++;
+            Payload old = cache.put(identity ? new ImageKey((BufferedImage) key, format, collected) : new FormatKey(key, format), shared);
+            if (old != null) release(old);
+            trim();
+            return shared.data;
+        }
+    }
+
+    private static byte[] write(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(image.getHeight() * image.getWidth());
+        if (!ImageIO.write(image, format, bos)) {
+            throw new IOException("No ImageIO writer for format " + format);
+        }
+        return bos.toByteArray();
+    }
+
+    private void release(Payload payload) {
+        if (--payload.references == 0) {
+            payloads.remove(payload);
+            bytes -= payload.data.length;
+        }
+    }
+
+    /**
+     * 移除已经被回收的图片, 需要持有 {@link #cache} 的锁
+     */
+    private void expunge() {
+        Reference<? extends BufferedImage> key;
+        while ((key = collected.poll()) != null) {
+            Payload old = cache.remove(key);
+            if (old != null) release(old);
+        }
+    }
+
+    private void trim() {
+        Iterator<Payload> iterator = cache.values().iterator();
+        while (bytes > maximumBytes && iterator.hasNext()) {
+            Payload payload = iterator.next();
+            iterator.remove();
+            release(payload);
+        }
+    }
+
+    /**
+     * 移除一个key所有格式的缓存
+     *
+     * @param key 图片或者调用者提供的key
+     */
+    public void invalidate(Object key) {
+        synchronized (cache) {
+            expunge();
+            boolean identity = key instanceof BufferedImage;
+            cache.entrySet().removeIf(entry -> {
+                Object k = entry.getKey();
+                if (identity ? k instanceof ImageKey && ((ImageKey) k).get() == key
+                        : k instanceof FormatKey && ((FormatKey) k).key.equals(key)) {
+                    release(entry.getValue());
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return 命中率, 没有任何查询时为 0
+     */
+    public double hitRate() {
+        long hits = hits(), total = hits + misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            expunge();
+            return cache.size();
+        }
+    }
+
+    /**
+     * @return 缓存的图片占用的字节数, 共用的 byte[] 只计算一次
+     */
+    public long bytes() {
+        synchronized (cache) {
+            expunge();
+            return bytes;
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            payloads.clear();
+            while (collected.poll() != null) {
+                // 已经不在缓存中
+            }
+            bytes = 0;
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * 按对象判断的图片key, 不阻止图片被回收. 放入缓存的key注册到 {@link #collected}, 查询用的key不注册
+     */
+    private static final class ImageKey extends WeakReference<BufferedImage> {
+        private final String format;
+        private final int hash;
+
+        ImageKey(BufferedImage image, String format, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.format = format;
+            this.hash = System.identityHashCode(image) * 31 + format.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ImageKey)) return false;
+            ImageKey that = (ImageKey) o;
+            BufferedImage image = get();
+            return image != null && image == that.get() && format.equals(that.format);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 调用者提供的key, 和格式一起判断
+     */
+    private static final class FormatKey {
+        final Object key;
+        final String format;
+
+        FormatKey(Object key, String format) {
+            this.key = key;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FormatKey)) return false;
+            FormatKey that = (FormatKey) o;
+            return key.equals(that.key) && format.equals(that.format);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() * 31 + format.hashCode();
+        }
+    }
+
+    /**
+     * 按内容判断的编码结果
+     */
+    private static final class Payload {
+        final byte[] data;
+        final int hash;
+        int references;
+
+        Payload(byte[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Payload && Arrays.equals(data, ((Payload) o).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -155,7 +155,8 @@ public class EntityDrawBuilder<T extends Entity> extends Locator {
                 UUID check = null;
                 if (entity != null) check = entity.getUniqueId();
                 if (uniqueId != check) {
-                    if ((entity = Bukkit.getPlayer(uniqueId)) == null) {
+                    // @version 1.0.6: 可能在 buildAsync 的线程中
+                    if ((entity = MainThread.call(() -> Bukkit.getPlayer(uniqueId))) == null) {
                         throw new RuntimeException("Player " + uniqueId + " not found.");
                     }
                 }
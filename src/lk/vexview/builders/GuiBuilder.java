@@ -8,24 +8,19 @@ package lk.vexview.builders;
 import lk.vexview.gui.VexGui;
 import lk.vexview.gui.VexInventoryGui;
 import lk.vexview.gui.components.*;
-import lk.vexview.gui.components.expand.VexBase64Image;
 import org.bukkit.entity.Player;
 import org.bukkit.map.MapFont;
 import org.bukkit.map.MinecraftFont;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.nio.CharBuffer;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.logging.Level;
+import java.util.function.IntFunction;
 
 /**
  * VexGui的快速构造器.
@@ -42,8 +37,17 @@ import java.util.logging.Level;
 public class GuiBuilder extends Locator {
     /**
      * 已经注册进Builder的组件
+     *
+     * @see ComponentList
+     */
+    // @version 1.0.6: ConcurrentLinkedQueue => ComponentList
+    public Collection<VexComponents> components = new ComponentList<>();
+    /**
+     * 背景层, 构建时排在 {@link #components} 之前
+     *
+     * @see #background(Consumer)
      */
-    public Collection<VexComponents> components = new ConcurrentLinkedQueue<>();
+    protected List<VexComponents> backgroundLayer;
     /**
      * @see #calculateSize()
      * @see #border(int, int)
@@ -61,6 +65,19 @@ public class GuiBuilder extends Locator {
      * 此GUI是否可以关闭
      */
     public boolean closable = true;
+    /**
+     * @see #trackBounds(boolean)
+     */
+    protected boolean trackBounds;
+    protected int boundsRight, boundsBottom;
+    /**
+     * @see #template(String, int, int)
+     */
+    protected List<GuiTemplate.Hole> holes;
+    /**
+     * @see #defer(Consumer)
+     */
+    protected List<Runnable> deferred;
 
     static {
         ReflectionUtil.register(GuiBuilder.class, MethodHandles.lookup());
@@ -97,70 +114,6 @@ public class GuiBuilder extends Locator {
         return this;
     }
 
-    static void calculateSize(Collection<?> components0, AtomicInteger width, AtomicInteger height) {
-        for (Object components : components0) {
-            if (components instanceof VexSlot) {
-                VexSlot slot = (VexSlot) components;
-                width.set(Math.max(width.get(), slot.getX() + 16));
-                height.set(Math.max(height.get(), slot.getY() + 16));
-            } else if (components instanceof VexText) {
-                VexText text = (VexText) components;
-                AtomicInteger longest = new AtomicInteger(0);
-                AtomicInteger linesHeight = new AtomicInteger(0);
-
-                MinecraftFontSizeCalculation.calculatedSize(longest, linesHeight, text.getText());
-
-                width.set(Math.max(width.get(), (int) (text.getX() + Math.abs(text.getScale() * longest.get()))));
-                height.set(Math.max(height.get(), (int) (text.getY() + Math.abs(text.getScale() * linesHeight.get()))));
-            } else if (components instanceof VexScrollingList) {
-                VexScrollingList list = (VexScrollingList) components;
-                width.set(Math.max(width.get(), list.getX() + list.getWidth()));
-                height.set(Math.max(height.get(), list.getY() + list.getHeight()));
-            } else if (components instanceof VexImage) {
-                VexImage image = (VexImage) components;
-                width.set(Math.max(image.getX() + image.getXs(), width.get()));
-                height.set(Math.max(image.getY() + image.getYs(), height.get()));
-            } else if (components instanceof VexButton) {
-                VexButton button = (VexButton) components;
-                height.set(Math.max(button.getY() + button.getH(), height.get()));
-                width.set(Math.max(button.getX() + button.getW(), width.get()));
-            } else if (components instanceof VexBase64Image) {
-                VexBase64Image image = (VexBase64Image) components;
-                byte[] source = image.getBase64();
-                try {
-                    try (final ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
-                        final Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
-                        if (readers.hasNext()) {
-                            final ImageReader next = readers.next();
-                            try {
-                                next.setInput(iis);
-                                width.set(Math.max(width.get(), image.getX() + next.getWidth(0)));
-                                height.set(Math.max(height.get(), image.getY() + next.getWidth(0)));
-                            } finally {
-                                next.dispose();
-                            }
-                        }// else This Image Dont have any reader.
-                    }
-                } catch (IOException error) {
-                    ChannelBuilder.plugin.getLogger().log(Level.WARNING,
-                            "Base64 Image[" + image.getId() + "] not a valid image.", error);
-                }
-            } else if (components instanceof VexTextField) {
-                VexTextField field = (VexTextField) components;
-                width.set(Math.max(width.get(), field.getX() + field.getWidth()));
-                height.set(Math.max(height.get(), field.getY() + field.getHeight()));
-            } else if (components instanceof VexEntityDraw) {
-                VexEntityDraw draw = (VexEntityDraw) components;
-                height.set(Math.max(height.get(), draw.getY()));
-                width.set(Math.max(width.get(), draw.getX() + (draw.getScale() / 2)));
-            } else if (components instanceof VexTextArea) {
-                VexTextArea area = (VexTextArea) components;
-                width.set(Math.max(width.get(), area.getX() + area.getWidth()));
-                height.set(Math.max(height.get(), area.getY() + area.getHeight()));
-            }
-        }
-    }
-
     /**
      * 自动确定GUI大小, 可用 {@link #border(int, int)} 追加大小
      *
@@ -173,14 +126,78 @@ public class GuiBuilder extends Locator {
             parent.calculateSize();
             return this;
         }
-        AtomicInteger width = new AtomicInteger(0);
-        AtomicInteger height = new AtomicInteger(0);
-        calculateSize(components, width, height);
-        this.width = width.get() + rightOffset;
-        this.height = height.get() + bottomOffset;
+        if (trackBounds) {
+            this.width = boundsRight + rightOffset;
+            this.height = boundsBottom + bottomOffset;
+            return this;
+        }
+        long bounds = layerBounds();
+        this.width = BoundsCalculator.right(bounds) + rightOffset;
+        this.height = BoundsCalculator.bottom(bounds) + bottomOffset;
+        return this;
+    }
+
+    /**
+     * 在 {@link #addComponent(VexComponents)} 时记录组件的最右/最底位置,
+     * 之后 {@link #calculateSize()} 不再需要重新扫描所有组件.
+     * <p>
+     * 开启时会计算一次已有组件, 直接修改 {@link #components} 的内容不会被记录
+     *
+     * @param track 是否记录
+     * @return 构建器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public GuiBuilder trackBounds(boolean track) {
+        if (parent != null) {
+            parent.trackBounds(track);
+            return this;
+        }
+        if (track && !trackBounds) {
+            long bounds = layerBounds();
+            boundsRight = BoundsCalculator.right(bounds);
+            boundsBottom = BoundsCalculator.bottom(bounds);
+        }
+        trackBounds = track;
+        return this;
+    }
+
+    /**
+     * 是否允许多个线程同时往此构建器添加组件, 只对默认的组件列表 ({@link ComponentList}) 有效
+     *
+     * @param threadSafe 是否线程安全
+     * @return 构建器本身
+     * @see ComponentList#threadSafe(boolean)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public GuiBuilder threadSafe(boolean threadSafe) {
+        if (parent != null) {
+            parent.threadSafe(threadSafe);
+            return this;
+        }
+        if (components instanceof ComponentList) {
+            ((ComponentList<VexComponents>) components).threadSafe(threadSafe);
+        }
         return this;
     }
 
+    private long layerBounds() {
+        long bounds = ComponentBounds.calculate(components);
+        if (backgroundLayer == null) return bounds;
+        long layer = ComponentBounds.calculate(backgroundLayer);
+        return BoundsCalculator.bounds(
+                Math.max(BoundsCalculator.right(bounds), BoundsCalculator.right(layer)),
+                Math.max(BoundsCalculator.bottom(bounds), BoundsCalculator.bottom(layer))
+        );
+    }
+
+    private GuiBuilder root() {
+        GuiBuilder root = this;
+        while (root.parent != null) root = root.parent;
+        return root;
+    }
+
     protected GuiBuilder() {
     }
 
@@ -213,6 +230,69 @@ public class GuiBuilder extends Locator {
         return this;
     }
 
+    /**
+     * 在背景层构建组件, 背景层的组件总是排在普通组件之前, 不受添加顺序影响
+     * <pre>{@code
+     * builder.text(....)
+     *      .background(bg -> bg.image(image -> image.background("[local]panel.png").size(100, 40)))
+     * }</pre>
+     *
+     * @param action 操作, 参数为背景层的运行时
+     * @return 构建器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public GuiBuilder background(Consumer<GuiBuilder> action) {
+        GuiBuilder root = root();
+        if (root.backgroundLayer == null) root.backgroundLayer = new ArrayList<>();
+        GuiBuilder context = newContext();
+        context.components = root.backgroundLayer;
+        action.accept(context);
+        return this;
+    }
+
+    /**
+     * 把操作推迟到构建GUI时执行, 按照添加的顺序执行, 每个操作只执行一次.
+     * <p>
+     * 使用 {@link #buildAsync(String, int, int, Executor)} 时, 推迟的操作在工作线程中执行.
+     * 没有推迟的调用 (例如直接调用的 text/image/calculateSize) 在调用时所在的线程中立即执行,
+     * 需要移出主线程的文字测量, Base64编码, 9 Slice 等都要放在推迟的操作中
+     *
+     * <pre>{@code
+     * GuiBuilder.builder()
+     *      .defer(b -> b.text(....).image(....))
+     *      .defer(GuiBuilder::calculateSize)
+     *      .buildAsync(....);
+     * }</pre>
+     *
+     * @param action 操作, 参数为调用此方法的构建器
+     * @return 构建器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public GuiBuilder defer(Consumer<? super GuiBuilder> action) {
+        Objects.requireNonNull(action, "action");
+        GuiBuilder root = root();
+        synchronized (root) {
+            if (root.deferred == null) root.deferred = new ArrayList<>();
+            root.deferred.add(() -> action.accept(this));
+        }
+        return this;
+    }
+
+    private void runDeferred() {
+        while (true) {
+            List<Runnable> actions;
+            synchronized (this) {
+                actions = deferred;
+                deferred = null;
+            }
+            // 推迟的操作中也可以继续推迟
+            if (actions == null) return;
+            for (Runnable action : actions) action.run();
+        }
+    }
+
     /**
      * 把构建器本身作为参数执行动作
      *
@@ -374,6 +454,12 @@ public class GuiBuilder extends Locator {
     public GuiBuilder addComponent(VexComponents component) {
         Objects.requireNonNull(component, "Component cannot be null");
         this.components.add(component);
+        GuiBuilder root = root();
+        if (root.trackBounds) {
+            long bounds = ComponentBounds.calculate(component);
+            root.boundsRight = Math.max(root.boundsRight, BoundsCalculator.right(bounds));
+            root.boundsBottom = Math.max(root.boundsBottom, BoundsCalculator.bottom(bounds));
+        }
         return this;
     }
 
@@ -384,6 +470,10 @@ public class GuiBuilder extends Locator {
     public GuiBuilder setComponents(Collection<VexComponents> components) {
         Objects.requireNonNull(components, "Components cannot be null.");
         this.components = components;
+        if (trackBounds) {
+            trackBounds = false;
+            trackBounds(true);
+        }
         return this;
     }
 
@@ -403,41 +493,167 @@ public class GuiBuilder extends Locator {
      */
     public VexGui build(String background, int x, int y) {
         if (parent != null) return parent.build(background, x, y);
-        componentErrorDetection();
-        VexGui gui = new VexGui(background, x, y, width, height, ReflectionUtil.wrappedList(components));
+        runDeferred();
+        return build(background, x, y, backgroundLayer);
+    }
+
+    /**
+     * 在 executor 中执行 {@link #defer(Consumer) 推迟的操作} 并构建GUI.
+     * <p>
+     * 在 executor 中执行的只有: 推迟的操作, 合并背景层, 组件检错与创建 {@link VexGui}.
+     * 调用此方法之前已经添加的组件在添加时就已经构建好了, 不会移到 executor 中; 创建 VexGui 只是保存组件列表, 开销很小.
+     * <p>
+     * 需要访问 Bukkit 的地方 (例如 {@link EntityDrawBuilder} 查找玩家) 会通过 {@link MainThread} 回到主线程,
+     * 所以不要在主线程中等待返回的 Future, 使用 {@code thenAcceptAsync(..., MainThread.EXECUTOR)} 打开GUI
+     *
+     * @param background GUI背景图片
+     * @param x          GUI的x坐标
+     * @param y          GUI的y坐标
+     * @param executor   执行构建的线程池
+     * @return 构建好的GUI
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public CompletableFuture<VexGui> buildAsync(String background, int x, int y, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> build(background, x, y), executor);
+    }
+
+    private VexGui build(String background, int x, int y, List<VexComponents> layer) {
+        List<VexComponents> components = layered(layer, this.components);
+        componentErrorDetection(components);
+        VexGui gui = new VexGui(background, x, y, width, height, components);
         gui.setClosable(closable);
         return gui;
     }
 
+    /**
+     * 定义一个文本空位, 内容在 {@link GuiTemplate#instantiate(Map)} 时填充. 使用方法与 {@link #text(Function)} 一样
+     *
+     * @param name   空位名字
+     * @param action 操作, 定义位置/缩放/默认内容
+     * @return 构建器本身
+     * @see #template(String, int, int)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public GuiBuilder textHole(String name, Function<TextBuilder, TextBuilder> action) {
+        TextBuilder prototype = action.apply(TextBuilder.builder().location(xOffset, yOffset));
+        return addHole(index -> new GuiTemplate.TextHole(name, index, prototype));
+    }
+
+    /**
+     * 定义一个物品槽空位, 物品在 {@link GuiTemplate#instantiate(Map)} 时填充
+     *
+     * @param name   空位名字
+     * @param action 操作
+     * @return 构建器本身
+     * @see #template(String, int, int)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public GuiBuilder slotHole(String name, Function<SlotBuilder, SlotBuilder> action) {
+        SlotBuilder prototype = action.apply(SlotBuilder.builder().location(xOffset, yOffset));
+        return addHole(index -> new GuiTemplate.SlotHole(name, index, prototype));
+    }
+
+    /**
+     * 定义一个按钮空位, 按钮文字在 {@link GuiTemplate#instantiate(Map)} 时填充
+     *
+     * @param name   空位名字
+     * @param action 操作, 需要定义完整的按钮
+     * @return 构建器本身
+     * @see #template(String, int, int)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public GuiBuilder buttonHole(String name, Function<ButtonBuilder, ButtonBuilder> action) {
+        ButtonBuilder prototype = action.apply(ButtonBuilder.builder().location(xOffset, yOffset));
+        prototype.checkup();
+        return addHole(index -> new GuiTemplate.ButtonHole(name, index, prototype));
+    }
+
+    private GuiBuilder addHole(IntFunction<GuiTemplate.Hole> hole) {
+        Objects.requireNonNull(hole, "hole");
+        GuiBuilder root = root();
+        if (root.holes == null) root.holes = new ArrayList<>();
+        root.holes.add(hole.apply(root.components.size() + root.holes.size()));
+        return this;
+    }
+
+    /**
+     * 把当前的组件与大小固定为模板, 之后对此构建器的修改不会影响模板
+     *
+     * @param background GUI背景图片
+     * @param x          GUI的x坐标
+     * @param y          GUI的y坐标
+     * @return GUI模板
+     * @throws IllegalStateException 存在不能共用的组件, 比如输入框, 见 {@link GuiTemplate}
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public GuiTemplate template(String background, int x, int y) {
+        if (parent != null) return parent.template(background, x, y);
+        runDeferred();
+        return new GuiTemplate(background, x, y, width, height, closable, backgroundLayer, components,
+                holes == null ? Collections.emptyList() : holes);
+    }
+
     /**
      * 组件检错, 目前只有VexSlot
      *
      * @return 构建器本身
      */
     public GuiBuilder componentErrorDetection() {
+        if (backgroundLayer == null || backgroundLayer.isEmpty()) {
+            componentErrorDetection(components);
+        } else {
+            componentErrorDetection(layered(backgroundLayer, components));
+        }
+        return this;
+    }
+
+    /**
+     * 交给GUI的组件列表. 没有背景层时与 1.0.5 相同, 直接使用构建器的列表;
+     * 否则复制到一个新的可修改列表中, 背景层在前. 两种情况 GUI 的组件列表都可以继续修改
+     */
+    static List<VexComponents> layered(List<VexComponents> layer, Collection<VexComponents> components) {
+        if (layer == null || layer.isEmpty()) return ReflectionUtil.wrappedList(components);
+        ComponentList<VexComponents> list = new ComponentList<>(layer.size() + components.size());
+        if (components instanceof ComponentList && ((ComponentList<?>) components).isThreadSafe()) {
+            list.threadSafe(true);
+        }
+        list.addAll(layer);
+        list.addAll(components);
+        return list;
+    }
+
+    private static void componentErrorDetection(Collection<VexComponents> components) {
         int id = 0;
         for (VexComponents comp : components) {
             if (comp instanceof VexSlot) {
                 ((VexSlot) comp).setId(id++);
             }
         }
-        return this;
     }
 
-    public synchronized VexGui buildWith(Slice9 slice9, int x, int y) {
+    /**
+     * 以9 Slice作为背景构建GUI, 9 Slice的边框排在所有组件之前, 中心图片作为GUI背景
+     *
+     * @param slice9 9 Slice信息, 大小与位置会被忽略
+     * @param x      GUI的x坐标
+     * @param y      GUI的y坐标
+     * @return 构建好的GUI
+     */
+    public VexGui buildWith(Slice9 slice9, int x, int y) {
         if (parent != null) return parent.buildWith(slice9, x, y);
-        Slice9 c = slice9.clone();
-        c.size(width, height);
-        c.location(0, 0);
-        location(0, 0);
-        Collection<VexComponents> current = components;
-        components = new ConcurrentLinkedQueue<>();
-        c.accept(this, false);
-        components.addAll(current);
-        current.clear();
-        current.addAll(components);
-        components = current;
-        return build(slice9.center, x, y);
+        runDeferred();
+        // @version 1.0.6: 边框渲染到单独的一层, 不再加锁交换/复制组件列表, 也不再修改构建器
+        List<VexComponents> border = new ArrayList<>(8);
+        GuiBuilder context = builder();
+        context.components = border;
+        slice9.render(context, 0, 0, width, height, false);
+        if (backgroundLayer != null) border.addAll(backgroundLayer);
+        return build(slice9.center, x, y, border);
     }
 
     /**
@@ -457,14 +673,16 @@ public class GuiBuilder extends Locator {
         if (parent != null) return parent.buildInventory(
                 background, x, y, imageWidth, imageHeight,
                 slotLeft, slotRight);
-        componentErrorDetection();
+        runDeferred();
+        List<VexComponents> components = layered(backgroundLayer, this.components);
+        componentErrorDetection(components);
         VexInventoryGui gui = new VexInventoryGui(
                 background, x, y,
                 imageWidth, imageHeight,
                 width, height,
                 slotLeft,
                 slotRight);
-        gui.setComponents(ReflectionUtil.wrappedList(components));
+        gui.setComponents(components);
         gui.setClosable(closable);
         return gui;
     }
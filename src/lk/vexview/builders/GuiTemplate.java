@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: GuiTemplate.java@author: karlatemp@vip.qq.com: 2020/2/6 下午5:10@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import lk.vexview.gui.VexGui;
+import lk.vexview.gui.components.*;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 不可变的GUI模板. 静态组件与GUI大小在创建时固定, 每个玩家只需要填充"空位".
+ *
+ * <pre>{@code
+ * // 启动时构建一次
+ * GuiTemplate template = GuiBuilder.builder()
+ *      .image(...)                                          // 静态组件, 所有玩家共用
+ *      .textHole("money", text -> text.offset(10, 10))      // 文本空位
+ *      .slotHole("head", slot -> slot.offset(10, 30))       // 物品槽空位
+ *      .buttonHole("buy", button -> button.id("buy").background(...).size(60, 20))
+ *      .calculateSize()
+ *      .template("[local]bg.png", -1, -1);
+ *
+ * // 每次打开
+ * Map<String, Object> values = new HashMap<>();
+ * values.put("money", "余额: " + money);
+ * values.put("head", headItem);
+ * VexViewAPI.openGui(player, template.instantiate(values));
+ * }</pre>
+ * <p>
+ * 注意: 静态组件实例会被所有实例化的GUI共用, 不要在打开之后修改它们 (物品槽在创建模板时复制, 不受构建器之后的修改影响). 空位的内容不参与 calculateSize.
+ * 保存玩家输入的组件 (输入框, 文本域, 复选框, 滚动栏) 不能共用, 创建模板时如果存在这些组件会抛出 {@link IllegalStateException}
+ *
+ * @author Karlatemp
+ * @see GuiBuilder#template(String, int, int)
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class GuiTemplate {
+    /**
+     * 打开后会保存玩家输入/状态的组件, 不能放在所有玩家共用的模板中
+     */
+    private static final Class<?>[] STATEFUL = {
+            VexTextField.class, VexTextArea.class, VexCheckBox.class, VexScrollingList.class
+    };
+
+    /**
+     * 一个可以在实例化时填充的组件, 创建后不再修改, 可以被同一个构建器的多个模板共用
+     */
+    abstract static class Hole {
+        final String name;
+        /**
+         * 在普通组件中的位置
+         */
+        final int index;
+
+        Hole(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        abstract VexComponents build(Object value, int slotId);
+    }
+
+    static final class TextHole extends Hole {
+        private final TextBuilder prototype;
+
+        TextHole(String name, int index, TextBuilder prototype) {
+            super(name, index);
+            this.prototype = prototype;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        VexComponents build(Object value, int slotId) {
+            if (value == null) return prototype.copy(null).build();
+            TextBuilder text = prototype.copy(null);
+            if (value instanceof List) {
+                text.lines((List<String>) value);
+            } else if (value instanceof Collection) {
+                text.lines(new ArrayList<>((Collection<String>) value));
+            } else {
+                text.lines(InputFieldBuilder.split(value.toString()));
+            }
+            return text.build();
+        }
+    }
+
+    static final class SlotHole extends Hole {
+        private final SlotBuilder prototype;
+
+        SlotHole(String name, int index, SlotBuilder prototype) {
+            super(name, index);
+            this.prototype = prototype;
+        }
+
+        @Override
+        VexComponents build(Object value, int slotId) {
+            ItemStack item = value == null ? prototype.item : (ItemStack) value;
+            return new VexSlot(slotId, prototype.xOffset, prototype.yOffset, item);
+        }
+    }
+
+    static final class ButtonHole extends Hole {
+        private final ButtonBuilder prototype;
+
+        ButtonHole(String name, int index, ButtonBuilder prototype) {
+            super(name, index);
+            this.prototype = prototype;
+        }
+
+        @Override
+        VexComponents build(Object value, int slotId) {
+            if (value == null) return prototype.build();
+            return prototype.copy(null).text(value.toString()).build();
+        }
+    }
+
+    private final String background;
+    private final int x, y, width, height;
+    private final boolean closable;
+    /**
+     * 所有组件, 空位的位置为 null
+     */
+    private final VexComponents[] components;
+    private final Hole[] holes;
+    /**
+     * 每个空位在最终组件列表中的位置 (包括背景层) 与物品槽ID
+     */
+    private final int[] positions, slotIds;
+    private final Set<String> names;
+
+    GuiTemplate(String background, int x, int y, int width, int height, boolean closable,
+                List<VexComponents> backgroundLayer, Collection<VexComponents> components, List<Hole> holes) {
+        this.background = background;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.closable = closable;
+        this.holes = holes.toArray(new Hole[0]);
+        this.positions = new int[this.holes.length];
+        this.slotIds = new int[this.holes.length];
+        int layer = backgroundLayer == null ? 0 : backgroundLayer.size();
+        this.components = new VexComponents[layer + components.size() + this.holes.length];
+        Iterator<VexComponents> iterator = GuiBuilder.layered(backgroundLayer, components).iterator();
+        int hole = 0, slotId = 0;
+        for (int i = 0; i < this.components.length; i++) {
+            if (hole < this.holes.length && this.holes[hole].index + layer == i) {
+                positions[hole] = i;
+                if (this.holes[hole] instanceof SlotHole) slotIds[hole] = slotId++;
+                hole++;
+                continue;
+            }
+            VexComponents component = iterator.next();
+            checkShareable(component);
+            if (component instanceof VexSlot) {
+                // 构建器中的 VexSlot 会在之后的 build 中重新编号, 模板使用自己的副本
+                VexSlot slot = (VexSlot) component;
+                component = new VexSlot(slotId++, slot.getX(), slot.getY(), slot.getItem());
+            }
+            this.components[i] = component;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (Hole h : this.holes) names.add(h.name);
+        this.names = Collections.unmodifiableSet(names);
+    }
+
+    private static void checkShareable(VexComponents component) {
+        if (component instanceof VexSlot && component.getClass() != VexSlot.class) {
+            throw new IllegalStateException(component.getClass().getName()
+                    + " cannot be copied into a GuiTemplate, use slotHole instead");
+        }
+        for (Class<?> type : STATEFUL) {
+            if (type.isInstance(component)) {
+                throw new IllegalStateException(component.getClass().getName()
+                        + " keeps player state and cannot be shared by a GuiTemplate, add it to each instantiated VexGui instead");
+            }
+        }
+    }
+
+    /**
+     * @return 所有空位的名字
+     */
+    public Set<String> getHoles() {
+        return names;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * 实例化GUI
+     *
+     * @param values 空位名字对应的值. 文本: String/List&lt;String&gt;, 物品槽: ItemStack, 按钮: String.
+     *               没有值的空位使用定义时的内容
+     * @return 新的GUI
+     */
+    public VexGui instantiate(Map<String, ?> values) {
+        return instantiate(values::get);
+    }
+
+    /**
+     * 实例化GUI
+     *
+     * @param values 通过空位名字获取值
+     * @return 新的GUI
+     * @see #instantiate(Map)
+     */
+    public VexGui instantiate(Function<String, ?> values) {
+        List<VexComponents> list = new ArrayList<>(Arrays.asList(components));
+        for (int i = 0; i < holes.length; i++) {
+            Hole hole = holes[i];
+            list.set(positions[i], hole.build(values.apply(hole.name), slotIds[i]));
+        }
+        VexGui gui = new VexGui(background, x, y, width, height, list);
+        gui.setClosable(closable);
+        return gui;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ImageSizeProbe.java@author: karlatemp@vip.qq.com: 2020/2/6 下午4:05@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * 直接从文件头读取图片大小. 支持 PNG/GIF/BMP/JPEG, 其他格式使用 ImageIO.
+ * <p>
+ * 常见格式只读取文件头的几十个字节, 不需要缓存
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+final class ImageSizeProbe {
+    /**
+     * 无法识别的图片
+     */
+    static final long UNKNOWN = -1;
+
+    private ImageSizeProbe() {
+    }
+
+    /**
+     * 获取图片大小
+     *
+     * @param image 图片的原始数据
+     * @return 使用 {@link MinecraftFontSizeCalculation#width(long)}/{@link MinecraftFontSizeCalculation#height(long)} 读取,
+     * 没有可用的 ImageReader 时为 {@link #UNKNOWN}
+     * @throws IOException 图片数据错误
+     */
+    static long size(byte[] image) throws IOException {
+        long size = header(image);
+        return size == UNKNOWN ? imageIO(image) : size;
+    }
+
+    static long header(byte[] data) {
+        int length = data.length;
+        if (length >= 24 && u8(data, 0) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G'
+                && data[12] == 'I' && data[13] == 'H' && data[14] == 'D' && data[15] == 'R') {
+            return MinecraftFontSizeCalculation.pack(be32(data, 16), be32(data, 20));
+        }
+        if (length >= 10 && data[0] == 'G' && data[1] == 'I' && data[2] == 'F' && data[3] == '8') {
+            return MinecraftFontSizeCalculation.pack(le16(data, 6), le16(data, 8));
+        }
+        if (length >= 26 && data[0] == 'B' && data[1] == 'M') {
+            if (le32(data, 14) == 12) {
+                // BITMAPCOREHEADER
+                return MinecraftFontSizeCalculation.pack(le16(data, 18), le16(data, 20));
+            }
+            // 高度为负数时是从上往下存储的
+            return MinecraftFontSizeCalculation.pack(Math.abs(le32(data, 18)), Math.abs(le32(data, 22)));
+        }
+        if (length >= 4 && u8(data, 0) == 0xFF && u8(data, 1) == 0xD8) {
+            return jpeg(data);
+        }
+        return UNKNOWN;
+    }
+
+    private static long jpeg(byte[] data) {
+        int length = data.length;
+        int i = 2;
+        while (i + 3 < length) {
+            if (u8(data, i) != 0xFF) return UNKNOWN;
+            int marker = u8(data, i + 1);
+            if (marker == 0xFF) {
+                // 填充字节
+                i++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                i += 2;
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // EOI / SOS 之前都没有SOF
+                return UNKNOWN;
+            }
+            int segment = be16(data, i + 2);
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                if (i + 8 >= length) return UNKNOWN;
+                return MinecraftFontSizeCalculation.pack(be16(data, i + 7), be16(data, i + 5));
+            }
+            i += 2 + segment;
+        }
+        return UNKNOWN;
+    }
+
+    private static long imageIO(byte[] image) throws IOException {
+        try (final ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (readers.hasNext()) {
+                final ImageReader next = readers.next();
+                try {
+                    next.setInput(iis);
+                    return MinecraftFontSizeCalculation.pack(next.getWidth(0), next.getHeight(0));
+                } finally {
+                    next.dispose();
+                }
+            }// else This Image Dont have any reader.
+        }
+        return UNKNOWN;
+    }
+
+    private static int u8(byte[] data, int index) {
+        return data[index] & 0xFF;
+    }
+
+    private static int be16(byte[] data, int index) {
+        return (u8(data, index) << 8) | u8(data, index + 1);
+    }
+
+    private static int le16(byte[] data, int index) {
+        return u8(data, index) | (u8(data, index + 1) << 8);
+    }
+
+    private static int be32(byte[] data, int index) {
+        return (be16(data, index) << 16) | be16(data, index + 2);
+    }
+
+    private static int le32(byte[] data, int index) {
+        return le16(data, index) | (le16(data, index + 2) << 16);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: ImageSource.java@author: karlatemp@vip.qq.com: 2020/2/8 下午2:40@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 可以重复读取的图片源, 给 {@link Base64ImageBuilder} 使用.
+ * <p>
+ * 每次构建都会调用 {@link #open()} 得到一个新的流, 所以同一个构建器可以构建任意多次 (image(), toHUD(), copy()...)
+ *
+ * <pre>{@code
+ * ImageSource logo = ImageSource.file(new File(getDataFolder(), "logo.png").toPath());
+ * Base64ImageBuilder base = ImageBuilder.builder().base64().source(logo).size(64, 64);
+ * VexBase64Image a = base.copy(null).id("logo-1").image();
+ * VexBase64Image b = base.copy(null).id("logo-2").image();
+ * }</pre>
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+@FunctionalInterface
+public interface ImageSource {
+    /**
+     * 打开一个新的流, 由调用者关闭
+     *
+     * @return 图片数据
+     * @throws IOException IO错误
+     */
+    InputStream open() throws IOException;
+
+    /**
+     * 内存中的图片, 数组不会被复制, 之后不要修改
+     *
+     * @param data 图片数据
+     * @return 图片源
+     */
+    static ImageSource bytes(byte[] data) {
+        Objects.requireNonNull(data, "data");
+        return () -> new ByteArrayInputStream(data);
+    }
+
+    /**
+     * 文件, 立即以只读方式映射到内存, 之后读取不再访问磁盘. 文件内容被修改后需要重新创建
+     *
+     * @param path 文件
+     * @return 图片源
+     * @throws IOException 打开文件错误
+     */
+    static ImageSource file(Path path) throws IOException {
+        Objects.requireNonNull(path, "path");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return () -> new ByteBufferInputStream(buffer.duplicate());
+    }
+
+    /**
+     * 每次构建时调用 supplier 打开新的流, 比如 {@code ImageSource.supplier(() -> getResource("logo.png"))}.
+     * supplier 返回 null 时抛出 {@link FileNotFoundException}
+     *
+     * @param supplier 打开流的操作
+     * @return 图片源
+     */
+    static ImageSource supplier(Supplier<? extends InputStream> supplier) {
+        Objects.requireNonNull(supplier, "supplier");
+        return () -> {
+            InputStream stream = supplier.get();
+            if (stream == null) throw new FileNotFoundException("Image source supplier returned null");
+            return stream;
+        };
+    }
+
+    /**
+     * 只能读取一次的流. 第一次使用时读取全部内容并关闭流, 之后使用读取到的内容
+     *
+     * @param stream 流
+     * @return 图片源
+     */
+    static ImageSource stream(InputStream stream) {
+        Objects.requireNonNull(stream, "stream");
+        return new ImageSource() {
+            private volatile byte[] data;
+
+            @Override
+            public InputStream open() throws IOException {
+                byte[] data = this.data;
+                if (data == null) {
+                    synchronized (this) {
+                        if ((data = this.data) == null) {
+                            try (InputStream source = stream) {
+                                ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(32, source.available()));
+                                byte[] buffer = new byte[8192];
+                                int length;
+                                while ((length = source.read(buffer)) != -1) {
+                                    bos.write(buffer, 0, length);
+                                }
+                                this.data = data = bos.toByteArray();
+                            }
+                        }
+                    }
+                }
+                return new ByteArrayInputStream(data);
+            }
+        };
+    }
+}
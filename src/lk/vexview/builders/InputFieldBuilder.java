@@ -218,7 +218,8 @@ public class InputFieldBuilder extends Locator {
         list.add(val.substring(0, first));
         first++;
         do {
-            int sdd = val.indexOf(first, '\n');
+            // @version 1.0.6: 参数顺序错误
+            int sdd = val.indexOf('\n', first);
             if (sdd == -1) {
                 list.add(val.substring(first));
                 return list;
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: LatencyHistogram.java@author: karlatemp@vip.qq.com: 2020/2/9 下午8:05@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的耗时直方图 (纳秒), 与 HdrHistogram 相同的对数-线性分桶:
+ * 每个2的幂区间分为 32 个桶, 相对误差不超过 1/32, 最大记录约 18 分钟 (2^40 纳秒), 更大的值记录为最大值.
+ * <p>
+ * {@link #record(long)} 只有一次原子加, 可以在任意线程调用
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5, SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long HIGHEST = (1L << 40) - 1;
+    private static final int BUCKETS = index(HIGHEST) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    static int index(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * @return 桶中最大的值
+     */
+    static long highest(int index) {
+        int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        long lowest = (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 纳秒, 小于0时记录为0
+     */
+    public void record(long nanos) {
+        long value = Math.min(HIGHEST, Math.max(0, nanos));
+        counts.incrementAndGet(index(value));
+        total.add(value);
+        long max;
+        while (value > (max = this.max.get()) && !this.max.compareAndSet(max, value)) {
+            // retry
+        }
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) count += counts.get(i);
+        return count;
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public long mean() {
+        long count = count();
+        return count == 0 ? 0 : total.sum() / count;
+    }
+
+    /**
+     * @param percentile 百分位, 0 ~ 100
+     * @return 不少于 percentile% 的记录不超过此值 (桶的上界, 不超过 {@link #max()})
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) count += snapshot[i] = counts.get(i);
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) return Math.min(highest(i), max());
+        }
+        return max();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.reset();
+        max.set(0);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: MainThread.java@author: karlatemp@vip.qq.com: 2020/2/7 下午7:45@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+
+/**
+ * 在服务器主线程执行操作. 构建器可能在其他线程中运行 (例如 {@link GuiBuilder#buildAsync(String, int, int, Executor)}),
+ * 需要访问 Bukkit 对象的地方都经过这里.
+ *
+ * <pre>{@code
+ * GuiBuilder.builder()
+ *      .defer(b -> b.text(....).image(....))
+ *      .buildAsync("[local]bg.png", -1, -1, ForkJoinPool.commonPool())
+ *      .thenAcceptAsync(gui -> VexViewAPI.openGui(player, gui), MainThread.EXECUTOR);
+ * }</pre>
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class MainThread {
+    /**
+     * 在主线程执行任务的 Executor, 已经在主线程时直接执行
+     */
+    public static final Executor EXECUTOR = command -> {
+        if (Bukkit.isPrimaryThread()) command.run();
+        else Bukkit.getScheduler().runTask(ChannelBuilder.plugin, command);
+    };
+
+    private MainThread() {
+    }
+
+    /**
+     * 在主线程执行并等待结果. 在其他线程调用时会阻塞到下一个 tick,
+     * 所以主线程不能一边等待异步构建的结果一边让构建调用此方法
+     *
+     * @param action 操作
+     * @param <T>    返回类型
+     * @return 操作的结果
+     */
+    public static <T> T call(Callable<T> action) {
+        if (Bukkit.isPrimaryThread()) {
+            try {
+                return action.call();
+            } catch (RuntimeException | Error error) {
+                throw error;
+            } catch (Exception error) {
+                throw new CompletionException(error);
+            }
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                result.complete(action.call());
+            } catch (Throwable error) {
+                result.completeExceptionally(error);
+            }
+        });
+        try {
+            return result.join();
+        } catch (CompletionException error) {
+            Throwable cause = error.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw error;
+        }
+    }
+
+    /**
+     * 使用 VexView 的 Logger 输出日志, 不等待
+     *
+     * @param level   日志等级
+     * @param message 信息
+     * @param error   异常, 可以为null
+     */
+    public static void log(Level level, String message, Throwable error) {
+        EXECUTOR.execute(() -> ChannelBuilder.plugin.getLogger().log(level, message, error));
+    }
+}
@@ -9,93 +9,298 @@ import org.bukkit.map.MinecraftFont;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 @BuildersModuleVersion("1.0.5")
 public class MinecraftFontSizeCalculation {
-    private static final byte[] sizes = new byte[(0xFFFF + 1) * Float.BYTES];
+    /**
+     * 字体表, 第一次使用时加载. 可以用 {@link #warmUp()} 提前在后台加载
+     * <p>
+     * 支持两种文件格式, 读取时自动识别:
+     * <ul>
+     *     <li>旧格式: 65536 个大端序 float</li>
+     *     <li>{@link #MAGIC 紧凑格式} (1.0.6): 以高8位分页, 相同的页只储存一次, 每个字符一个字节 (宽度 * 2)
+     *     <pre>
+     *     int    magic     0x56584657 ("VXFW")
+     *     byte   version   1
+     *     byte   页数 - 1
+     *     byte[256]        每个高8位使用的页
+     *     byte[页数][256]   宽度 * 2
+     *     </pre></li>
+     * </ul>
+     */
+    static final class Table {
+        static final int MAGIC = 0x56584657, VERSION = 1;
+        /**
+         * 字符宽度 * 2, 以 {@code [c >>> 8][c & 0xFF]} 为下标, 内容相同的页是同一个数组
+         */
+        static final byte[][] pages = new byte[256][];
 
-    private static void read(InputStream stream) {
-        try {
-            if (stream == null) {
-                ChannelBuilder.plugin.getLogger().log(Level.SEVERE, "Unfounded resource minecraft_font_sizes.bin!");
+        private Table() {
+        }
+
+        // @version 1.0.6: 可能在 warmUp() 或者异步构建的线程中加载, 日志统一使用 MainThread.log
+        static {
+            // 加载时先展开, 最后再合并相同的页
+            byte[] halves = new byte[0xFFFF + 1];
+            String property = System.getProperty("vexview.static.boot");
+            if (property == null) {
+                loadResource(halves);
+                // User custom font size
+                File file = new File(ChannelBuilder.plugin.getDataFolder(), "minecraft_font_size.bin");
+                if (file.isFile()) {
+                    try {
+                        loadFile(file, halves);
+                    } catch (IOException e) {
+                        MainThread.log(Level.WARNING, "Error in opening " + file, e);
+                    }
+                }
             } else {
-                try (InputStream autoClose = stream) {
-                    int read = sizes.length;
-                    int start = 0;
-                    do {
-                        int r = autoClose.read(sizes, start, read);
-                        if (r == -1) {
-                            ChannelBuilder.plugin.getLogger().log(Level.SEVERE,
-                                    "Incomplete reading but file has ended.");
-                            break;
-                        }
-                        read -= r;
-                        start += r;
-                    } while (read > 0);
+                try {
+                    loadFile(new File(property), halves);
+                } catch (IOException e) {
+                    e.printStackTrace();
                 }
             }
-        } catch (Throwable error) {
-            // error.printStackTrace();
-            ChannelBuilder.plugin.getLogger().log(Level.SEVERE, "Error in reading minecraft_font_sizes.bin", error);
+            Map<ByteBuffer, byte[]> shared = new HashMap<>();
+            for (int page = 0; page < pages.length; page++) {
+                byte[] data = Arrays.copyOfRange(halves, page << 8, (page + 1) << 8);
+                pages[page] = shared.computeIfAbsent(ByteBuffer.wrap(data), key -> data);
+            }
         }
-    }
 
-    static {
-        String property = System.getProperty("vexview.static.boot");
-        if (property == null) {
-            read(MinecraftFontSizeCalculation.class.getResourceAsStream("/minecraft_font_sizes.bin"));
-            // User custom font size
-            File file = new File(ChannelBuilder.plugin.getDataFolder(), "minecraft_font_size.bin");
-            if (file.isFile()) {
-                try {
-                    read(new FileInputStream(file));
-                } catch (FileNotFoundException e) {
-                    ChannelBuilder.plugin.getLogger().log(Level.WARNING, "Error in opening " + file);
+        private static void load(ByteBuffer buffer, byte[] halves) {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.remaining() >= 6 && buffer.getInt(buffer.position()) == MAGIC) {
+                loadCompact(buffer, halves);
+                return;
+            }
+            int count = Math.min(halves.length, buffer.remaining() / Float.BYTES);
+            if (count < halves.length) {
+                MainThread.log(Level.SEVERE,
+                        "Incomplete reading but file has ended.", null);
+            }
+            // 文件中为大端序 float (RandomAccessFile.writeFloat)
+            boolean rounded = false;
+            for (int i = 0; i < count; i++) {
+                float width = buffer.getFloat();
+                int half = Math.max(0, Math.min(0xFF, Math.round(width * 2)));
+                rounded |= half != width * 2;
+                halves[i] = (byte) half;
+            }
+            if (rounded) {
+                MainThread.log(Level.WARNING,
+                        "Some widths in minecraft_font_sizes.bin are not multiples of 0.5, rounded.", null);
+            }
+        }
+
+        private static void loadCompact(ByteBuffer buffer, byte[] halves) {
+            buffer.getInt();
+            int version = buffer.get() & 0xFF;
+            if (version != VERSION) {
+                MainThread.log(Level.SEVERE,
+                        "Unsupported font table version " + version, null);
+                return;
+            }
+            int pageCount = (buffer.get() & 0xFF) + 1;
+            if (buffer.remaining() < 256 + (pageCount << 8)) {
+                MainThread.log(Level.SEVERE,
+                        "Incomplete reading but file has ended.", null);
+                return;
+            }
+            int data = buffer.position() + 256;
+            for (int page = 0; page < 256; page++) {
+                int used = buffer.get(buffer.position() + page) & 0xFF;
+                if (used >= pageCount) {
+                    MainThread.log(Level.SEVERE,
+                            "Broken font table: page " + used + " >= " + pageCount, null);
+                    return;
                 }
+                ByteBuffer source = buffer.duplicate();
+                source.position(data + (used << 8));
+                source.get(halves, page << 8, 256);
             }
-        } else {
-            try {
-                read(new FileInputStream(property));
-            } catch (FileNotFoundException e) {
-                e.printStackTrace();
+        }
+
+        private static void loadResource(byte[] halves) {
+            // @version 1.0.6: 一次读取到数组中直接解码
+            try (InputStream stream = MinecraftFontSizeCalculation.class.getResourceAsStream("/minecraft_font_sizes.bin")) {
+                if (stream == null) {
+                    MainThread.log(Level.SEVERE, "Unfounded resource minecraft_font_sizes.bin!", null);
+                    return;
+                }
+                byte[] sizes = new byte[Math.max(stream.available(), 1 << 12)];
+                int length = 0, read;
+                while ((read = stream.read(sizes, length, sizes.length - length)) != -1) {
+                    length += read;
+                    if (length == sizes.length) sizes = Arrays.copyOf(sizes, sizes.length << 1);
+                }
+                load(ByteBuffer.wrap(sizes, 0, length), halves);
+            } catch (Throwable error) {
+                MainThread.log(Level.SEVERE, "Error in reading minecraft_font_sizes.bin", error);
             }
         }
+
+        private static void loadFile(File file, byte[] halves) throws IOException {
+            // @version 1.0.6: 只读映射, 不再经过 InputStream
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), halves);
+            }
+        }
+    }
+
+    private static CompletableFuture<Void> warmUp;
+
+    /**
+     * 在后台线程加载字体表, 多次调用只会加载一次. 由 {@link Builders#onEnable()} 在插件启动时调用;
+     * 没有调用时字体表在第一次测量文字时在当前线程加载
+     *
+     * @return 加载完成后完成的Future
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public static synchronized CompletableFuture<Void> warmUp() {
+        if (warmUp == null) {
+            warmUp = CompletableFuture.runAsync(() -> getWidth(' '), command -> {
+                Thread thread = new Thread(command, "VexView-Builders font warm-up");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        }
+        return warmUp;
     }
 
+    // @version 1.0.6: 启动时解码, 修复使用 Float.SIZE(bit) 作为下标的错误
     public static float getWidth(char c) {
-        return ByteBuffer.wrap(sizes, c * Float.SIZE, Float.SIZE).getFloat();
+        return (Table.pages[c >>> 8][c & 0xFF] & 0xFF) * 0.5f;
     }
 
+    /**
+     * 计算文本大小, 结果写入 width/height
+     *
+     * @param width   最长行的宽度, 只会变大
+     * @param height  所有行的总高度
+     * @param strings 文本, 每个元素都可以包含 {@code '\n'}
+     * @see #measureBlock(List)
+     */
     public static void calculatedSize(AtomicInteger width, AtomicInteger height, List<String> strings) {
+        long size = measureBlock(strings);
+        width.set(Math.max(width.get(), width(size)));
+        height.set(height(size));
+    }
+
+    /**
+     * 单行的高度
+     */
+    public static final double LINE_HEIGHT = 9.5;
+
+    /**
+     * {@link #measure(CharSequence)} 与 {@link #measureBlock(List)} 使用的缓存, 只缓存 {@link String}
+     *
+     * @since 1.0.6
+     */
+    public static final TextMetricsCache TEXT_CACHE = new TextMetricsCache(
+            Integer.getInteger("vexview.builders.text-cache", 4096)
+    );
+
+    /**
+     * 测量 [from, to) 范围内最长一行的宽度, 跳过颜色代码({@code '\u00a7'} 与其后一个字符), 不会创建任何对象
+     *
+     * @param text 文本
+     * @param from 起始位置(包含)
+     * @param to   结束位置(不包含)
+     * @return 最长一行的宽度
+     */
+    public static float measureWidth(CharSequence text, int from, int to) {
+        return Float.intBitsToFloat((int) (measure0(text, from, to) >>> 32));
+    }
+
+    /**
+     * 测量一段文本
+     *
+     * @param text 文本, 可以包含 {@code '\n'}
+     * @return 打包的大小, 使用 {@link #width(long)}/{@link #height(long)} 读取
+     */
+    public static long measure(CharSequence text) {
+        if (text == null) return 0;
+        long size = measureCached(text);
+        return pack((int) Float.intBitsToFloat((int) (size >>> 32)), (int) ((int) size * LINE_HEIGHT));
+    }
+
+    /**
+     * 测量多行文本, 宽度为最长一行, 高度为总行数 * {@link #LINE_HEIGHT}
+     *
+     * @param texts 文本, 每个元素都可以包含 {@code '\n'}
+     * @return 打包的大小, 使用 {@link #width(long)}/{@link #height(long)} 读取
+     */
+    public static long measureBlock(List<? extends CharSequence> texts) {
+        float width = 0;
         int lines = 0;
-        for (String value : strings) {
-            float wid = 0;
-            for (String line : InputFieldBuilder.split(value)) {
-                lines++;
+        for (CharSequence text : texts) {
+            if (text == null) continue;
+            long measured = measureCached(text);
+            width = Math.max(width, Float.intBitsToFloat((int) (measured >>> 32)));
+            lines += (int) measured;
+        }
+        return pack((int) width, (int) (lines * LINE_HEIGHT));
+    }
 
-                CharBuffer buffer = CharBuffer.wrap(line);
-                while (buffer.hasRemaining()) {
-                    char next = buffer.get();
-                    if (next == '\u00a7') {
-                        if (buffer.hasRemaining()) {
-                            buffer.get();
-                            continue;
-                        }
-                    }
-                    wid += getWidth(next);
-                }
+    private static long measureCached(CharSequence text) {
+        if (text instanceof String) {
+            return TEXT_CACHE.get((String) text, MinecraftFontSizeCalculation::measure0);
+        }
+        return measure0(text, 0, text.length());
+    }
+
+    private static long measure0(String text) {
+        return measure0(text, 0, text.length());
+    }
+
+    /**
+     * @return 高32位为最长一行宽度的 float bits, 低32位为行数
+     */
+    private static long measure0(CharSequence text, int from, int to) {
+        float longest = 0, line = 0;
+        int lines = 1;
+        for (int i = from; i < to; i++) {
+            char next = text.charAt(i);
+            if (next == '\n') {
+                longest = Math.max(longest, line);
+                line = 0;
+                lines++;
+                continue;
+            }
+            // 行尾的 '\u00a7' 没有颜色代码, 与 1.0.5 一样计算它自己的宽度
+            if (next == '\u00a7' && i + 1 < to && text.charAt(i + 1) != '\n') {
+                i++;
+                continue;
             }
-            width.set(Math.max(width.get(), (int) wid));
+            line += getWidth(next);
         }
-        height.set((int) (lines * 9.5));
+        return ((long) Float.floatToRawIntBits(Math.max(longest, line)) << 32) | lines;
+    }
+
+    public static long pack(int width, int height) {
+        return ((long) width << 32) | (height & 0xFFFFFFFFL);
+    }
+
+    public static int width(long size) {
+        return (int) (size >>> 32);
+    }
+
+    public static int height(long size) {
+        return (int) size;
     }
 }
@@ -5,14 +5,15 @@
 
 package lk.vexview.builders;
 
+import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiConsumer;
-import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * 别看了，内部实现不是给你用的
@@ -21,81 +22,118 @@ import java.util.function.Predicate;
  * @since 1.0.0
  */
 public class ReflectionUtil {
+    /**
+     * 不执行构造器的分配, 与 1.0.5 相同: 字段保持默认值, 之后由复制器覆盖. 类型为 (Class)Object, 不可用时为 null
+     */
+    private static final MethodHandle ALLOCATE_INSTANCE;
+
+    static {
+        MethodHandle allocateInstance = null;
+        try {
+            Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafe.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            allocateInstance = MethodHandles.lookup().findVirtual(unsafe, "allocateInstance",
+                    MethodType.methodType(Object.class, Class.class)).bindTo(theUnsafe.get(null));
+        } catch (Throwable ignore) {
+            // 退回到无参构造器
+        }
+        ALLOCATE_INSTANCE = allocateInstance;
+    }
+
+    // @version 1.0.6: 使用 Unsafe.allocateInstance 代替修改 DirectMethodHandle, 不可用时使用无参构造器
     @SuppressWarnings("unchecked")
     static <T> T allocate(Class<T> type) {
-        return (T) allocate.apply(type);
+        if (ALLOCATE_INSTANCE != null) {
+            try {
+                return (T) (Object) ALLOCATE_INSTANCE.invokeExact((Class<?>) type);
+            } catch (RuntimeException | Error re) {
+                throw re;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return (T) allocators.computeIfAbsent(type, ReflectionUtil::allocator).get();
     }
 
-    private static final Function<Class<?>, Object> allocate;
+    /**
+     * 没有 Unsafe 时每个类的分配器, 由无参构造器生成 (会执行字段初始化), 第一次分配之后只是一次 Supplier 调用
+     */
+    private static final Map<Class<?>, Supplier<Object>> allocators = new ConcurrentHashMap<>();
 
-    static {
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> allocator(Class<?> type) {
         try {
             final MethodHandles.Lookup lk = MethodHandles.lookup();
-            final Class<?> Const = Class.forName("java.lang.invoke.DirectMethodHandle$Constructor");
-            final Class<?> Direct = Class.forName("java.lang.invoke.DirectMethodHandle");
-            final Constructor<Object> constructor = Object.class.getConstructor();
-
-            Field instanceClass = null;
-            for (Field f : Const.getDeclaredFields()) {
-                if (f.getType() == Class.class) {
-                    instanceClass = f;
-                    break;
-                }
-            }
-            assert instanceClass != null;
-            instanceClass.setAccessible(true);
-            Field instanceClass0 = instanceClass;
+            final MethodHandle constructor = lk.findConstructor(type, MethodType.methodType(void.class));
+            return (Supplier<Object>) LambdaMetafactory.metafactory(lk, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor, MethodType.methodType(type)
+            ).getTarget().invokeExact();
+        } catch (NoSuchMethodException | IllegalAccessException notFound) {
+            throw new ClassCastException(type + " don't have a no-arg constructor.");
+        } catch (RuntimeException | Error re) {
+            throw re;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
 
+    /**
+     * 每个已注册类自身声明的字段复制器, 类型为 (Object from, Object to)void
+     */
+    private static final Map<Class<?>, MethodHandle> fields = new ConcurrentHashMap<>();
+    /**
+     * 以某个类为起点, 连同所有父类字段一起编译好的复制器, 类型与 {@link #fields} 一致
+     */
+    private static final Map<Class<?>, MethodHandle> copiers = new ConcurrentHashMap<>();
+    private static final MethodType COPIER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodHandle NOP;
 
-            Method allocateInstance = null;
-            for (Method met : Direct.getDeclaredMethods()) {
-                if (met.getParameterCount() == 1) {
-                    if (met.getName().equals("allocateInstance")) {
-                        allocateInstance = met;
-                    }
-                }
-            }
-            assert allocateInstance != null;
-            allocateInstance.setAccessible(true);
-            Method allocateInstance0 = allocateInstance;
-
-
-            allocate = clazz -> {
-                try {
-                    final MethodHandle base = lk.unreflectConstructor(constructor);
-                    instanceClass0.set(base, clazz);
-                    try {
-                        return allocateInstance0.invoke(null, base);
-                    } catch (InvocationTargetException target) {
-                        throw target.getTargetException();
-                    }
-                } catch (RuntimeException | Error re) {
-                    throw re;
-                } catch (Throwable e) {
-                    throw new RuntimeException(e);
-                }
-            };
+    static {
+        try {
+            NOP = MethodHandles.dropArguments(MethodHandles.lookup().findStatic(
+                    ReflectionUtil.class, "nop", MethodType.methodType(void.class)
+            ), 0, Object.class, Object.class);
         } catch (Throwable any) {
             throw new ExceptionInInitializerError(any);
         }
+        fields.put(Object.class, NOP);
     }
 
-    private static final Map<Class<?>, Collection<BiConsumer<Object, Object>>> fields = new ConcurrentHashMap<>();
-
-    static {
-        fields.put(Object.class, Collections.emptyList());
+    private static void nop() {
     }
 
     static void register(Class<?> self, MethodHandles.Lookup lk) {
         if (fields.containsKey(self)) return;
         if (!fields.containsKey(self.getSuperclass()))
             throw new ClassCastException(self + "'s parent not registered.");
-        Collection<BiConsumer<Object, Object>> fieldChanger = new ArrayDeque<>();
-        fields.put(self, fieldChanger);
+        MethodHandle copier = NOP;
         for (Field f : self.getDeclaredFields()) {
             if (!Modifier.isStatic(f.getModifiers()))
-                fieldChanger.add(build(f, lk));
+                copier = MethodHandles.foldArguments(copier, build(f, lk));
         }
+        fields.put(self, copier);
+    }
+
+    /**
+     * 把 start 以及其所有父类的字段复制器拼接成一条直线的 MethodHandle,
+     * 每个(from, to)起点类只会编译一次
+     */
+    private static MethodHandle copier(Class<?> start) {
+        MethodHandle copier = copiers.get(start);
+        if (copier != null) return copier;
+        copier = fields.get(start);
+        if (copier == null) {
+            throw new ClassCastException(start + " is not registered in reflection util.");
+        }
+        Class<?> parent = start.getSuperclass();
+        if (parent != null) {
+            copier = MethodHandles.foldArguments(copier(parent), copier);
+        }
+        copiers.putIfAbsent(start, copier);
+        return copier;
     }
 
     @BuildersModuleVersion("1.0.3")
@@ -103,16 +141,14 @@ public class ReflectionUtil {
         if (!start.isAssignableFrom(to)) {
             throw new ClassCastException(to + " not " + start + "'s sub class");
         }
-        if (!fields.containsKey(start)) {
-            throw new ClassCastException(start + " is not registered in reflection util.");
-        }
+        MethodHandle copier = copier(start);
         V v = allocate(to);
-        Class<?> matching = start;
-        while (matching != null) {
-            for (BiConsumer<Object, Object> copyor : fields.get(matching)) {
-                copyor.accept(from, v);
-            }
-            matching = matching.getSuperclass();
+        try {
+            copier.invokeExact(from, (Object) v);
+        } catch (RuntimeException | Error re) {
+            throw re;
+        } catch (Throwable throwable) {
+            throw new RuntimeException(throwable);
         }
         return v;
 
@@ -122,17 +158,19 @@ public class ReflectionUtil {
         return copyTo(from, from.getClass(), to);
     }
 
-    private static BiConsumer<Object, Object> build(Field f, MethodHandles.Lookup lk) {
+    /**
+     * 把字段编译为 (Object from, Object to)void, 内部全程使用字段真实类型, 不会对基本类型装箱
+     */
+    private static MethodHandle build(Field f, MethodHandles.Lookup lk) {
         try {
             MethodHandle getter = lk.unreflectGetter(f);
             MethodHandle setter = lk.unreflectSetter(f);
-            return (from, to) -> {
-                try {
-                    setter.invoke(to, getter.invoke(from));
-                } catch (Throwable throwable) {
-                    throw new RuntimeException(throwable);
-                }
-            };
+            // (to, from) -> to.field = from.field
+            MethodHandle copy = MethodHandles.filterArguments(setter, 1, getter);
+            return MethodHandles.permuteArguments(
+                    copy.asType(COPIER_TYPE),
+                    COPIER_TYPE, 1, 0
+            );
         } catch (Throwable any) {
             throw new ExceptionInInitializerError(any);
         }
@@ -151,7 +189,12 @@ public class ReflectionUtil {
             return new AbstractList<T>() {
                 @Override
                 public T get(int index) {
-                    throw new UnsupportedOperationException();
+                    // @version 1.0.6: 构建器默认使用 ComponentList, 这里只剩下自定义集合
+                    if (index < 0) throw new IndexOutOfBoundsException(String.valueOf(index));
+                    Iterator<T> iterator = components.iterator();
+                    for (int i = 0; i < index && iterator.hasNext(); i++) iterator.next();
+                    if (!iterator.hasNext()) throw new IndexOutOfBoundsException(String.valueOf(index));
+                    return iterator.next();
                 }
 
                 @Override
@@ -211,4 +254,31 @@ public class ReflectionUtil {
             };
         }
     }
+
+    /**
+     * 把 owner 中值为 current 的 {@link List} 字段替换为 replacement, 用于替换 VexView 内部的列表
+     *
+     * @param owner       对象
+     * @param current     字段现在的值
+     * @param replacement 新的值
+     * @return 是否找到并替换了字段
+     * @throws ReflectiveOperationException 找到了字段但是无法修改
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    static boolean replaceValue(Object owner, List<?> current, List<?> replacement) throws ReflectiveOperationException {
+        for (Class<?> type = owner.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                Class<?> fieldType = field.getType();
+                if (!List.class.isAssignableFrom(fieldType) || !fieldType.isInstance(replacement)) continue;
+                field.setAccessible(true);
+                if (field.get(owner) == current) {
+                    field.set(owner, replacement);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
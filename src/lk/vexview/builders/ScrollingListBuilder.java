@@ -9,11 +9,14 @@ import lk.vexview.gui.components.*;
 import org.bukkit.inventory.ItemStack;
 
 import java.lang.invoke.MethodHandles;
-import java.util.Collection;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
 /**
  * 滚动栏构建器
@@ -31,6 +34,11 @@ public class ScrollingListBuilder extends Locator {
      * 内部组件偏移
      */
     public int topOffset, leftOffset;
+    /**
+     * @see #trackBounds(boolean)
+     */
+    protected boolean trackBounds;
+    protected int boundsRight, boundsBottom;
 
     public static ScrollingListBuilder builder() {
         return new ScrollingListBuilder();
@@ -89,7 +97,8 @@ public class ScrollingListBuilder extends Locator {
         return this;
     }
 
-    protected Collection<ScrollingListComponent> components = new ConcurrentLinkedQueue<>();
+    // @version 1.0.6: ConcurrentLinkedQueue => ComponentList
+    protected Collection<ScrollingListComponent> components = new ComponentList<>();
 
     public Collection<ScrollingListComponent> getComponents() {
         return components;
@@ -97,6 +106,10 @@ public class ScrollingListBuilder extends Locator {
 
     public void setComponents(Collection<ScrollingListComponent> components) {
         this.components = components;
+        if (trackBounds) {
+            trackBounds = false;
+            trackBounds(true);
+        }
     }
 
     /**
@@ -201,6 +214,13 @@ public class ScrollingListBuilder extends Locator {
      */
     public ScrollingListBuilder addComponent(ScrollingListComponent component) {
         components.add(component);
+        ScrollingListBuilder root = this;
+        while (root.parent != null) root = root.parent;
+        if (root.trackBounds) {
+            long bounds = ComponentBounds.calculate(component);
+            root.boundsRight = Math.max(root.boundsRight, BoundsCalculator.right(bounds));
+            root.boundsBottom = Math.max(root.boundsBottom, BoundsCalculator.bottom(bounds));
+        }
         return this;
     }
 
@@ -213,7 +233,8 @@ public class ScrollingListBuilder extends Locator {
      * @see GuiBuilder#slot(Function)
      */
     public ScrollingListBuilder slot(Function<SlotBuilder, SlotBuilder> action) {
-        return addComponent(action.apply(SlotBuilder.builder().location(xOffset, yOffset)).build());
+        // @version 1.0.6: 与其他子组件一样使用子组件偏移, 而不是滚动栏本身的位置
+        return addComponent(action.apply(SlotBuilder.builder().location(leftOffset, topOffset)).build());
     }
 
     /**
@@ -238,6 +259,221 @@ public class ScrollingListBuilder extends Locator {
         return addComponent(action.apply(builder).build());
     }
 
+    /**
+     * 批量构建大量相同高度的行, 与对每一行调用 {@code newContext().componentOffset(0, i * rowHeight)} 相同.
+     * <p>
+     * 第 i 行的子组件原点为 {@code (leftOffset, topOffset + i * rowHeight)},
+     * 滚动栏的 fullHeight 至少为所有行的高度. 所有行都在调用者的线程中构建
+     *
+     * <pre>{@code
+     * ScrollingListBuilder.builder()
+     *      .location(10, 10).visitHeight(200).size(180, 0)
+     *      .rows(entries.size(), 20, i -> row -> row
+     *          .slot(slot -> slot.item(entries.get(i).getItem()))
+     *          .text(text -> text.offset(20, 4).addLine(entries.get(i).getName()))
+     *      )
+     *      .build();
+     * }</pre>
+     *
+     * @param count     行数
+     * @param rowHeight 每行的高度
+     * @param row       根据行号返回构建这一行的操作
+     * @return 构建器本身
+     * @see #rows(int, int, IntFunction, Executor)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ScrollingListBuilder rows(int count, int rowHeight,
+                                     IntFunction<? extends Consumer<? super ScrollingListBuilder>> row) {
+        return rows(count, rowHeight, row, null);
+    }
+
+    /**
+     * 与 {@link #rows(int, int, IntFunction)} 相同, 但是每一行的操作在 executor 中并行执行.
+     * <p>
+     * 每一行添加的组件以及对滚动栏本身的修改 (size/border/visitHeight/calculateSize/trackBounds...)
+     * 会被记录下来, 全部完成后在调用者的线程中按照行的顺序应用, 结果与顺序构建相同.
+     * 唯一的区别是行中读取到的滚动栏属性 (例如 width) 是调用此方法时的值, 看不到之前的行所做的修改.
+     * <p>
+     * 行的操作在其他线程执行, 不能调用 Bukkit 中非线程安全的方法, 也不能在行中 {@link #build()}
+     *
+     * @param count     行数
+     * @param rowHeight 每行的高度
+     * @param row       根据行号返回构建这一行的操作
+     * @param executor  执行行的线程池, 例如 {@link ForkJoinPool#commonPool()}. null 时在调用者的线程中构建
+     * @return 构建器本身
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ScrollingListBuilder rows(int count, int rowHeight,
+                                     IntFunction<? extends Consumer<? super ScrollingListBuilder>> row,
+                                     Executor executor) {
+        Objects.requireNonNull(row, "row");
+        if (count < 0) throw new IllegalArgumentException("count < 0");
+        ScrollingListBuilder root = this;
+        while (root.parent != null) root = root.parent;
+        if (executor == null || count < 2) {
+            for (int i = 0; i < count; i++) {
+                newContext().componentOffset(0, i * rowHeight).accept(row.apply(i));
+            }
+        } else {
+            List<RowRecorder> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) rows.add(new RowRecorder(root));
+            int chunk = Math.max(1, count / (Runtime.getRuntime().availableProcessors() * 4));
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int start = 0; start < count; start += chunk) {
+                int from = start, to = Math.min(count, start + chunk);
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    for (int i = from; i < to; i++) {
+                        ScrollingListBuilder context = newContext().componentOffset(0, i * rowHeight);
+                        context.parent = rows.get(i);
+                        context.components = rows.get(i).components;
+                        row.apply(i).accept(context);
+                    }
+                }, executor));
+            }
+            try {
+                CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException error) {
+                Throwable cause = error.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw error;
+            }
+            int size = 0;
+            for (RowRecorder recorder : rows) size += recorder.components.size();
+            if (components instanceof ComponentList) {
+                ((ComponentList<ScrollingListComponent>) components).ensureCapacity(components.size() + size);
+            }
+            for (RowRecorder recorder : rows) {
+                recorder.replay(root, components);
+            }
+        }
+        root.fullHeight = Math.max(root.fullHeight, topOffset + count * rowHeight);
+        return this;
+    }
+
+    /**
+     * {@link #rows(int, int, IntFunction, Executor)} 中一行的根构建器, 记录这一行添加的组件与对根构建器的修改
+     */
+    private static final class RowRecorder extends ScrollingListBuilder {
+        /**
+         * 对根构建器的操作, 以及操作之前这一行已经添加的组件数
+         */
+        private List<Consumer<ScrollingListBuilder>> actions;
+        private int[] added;
+
+        RowRecorder(ScrollingListBuilder root) {
+            components = new ComponentList<>();
+            xOffset = root.xOffset;
+            yOffset = root.yOffset;
+            width = root.width;
+            height = root.height;
+            fullHeight = root.fullHeight;
+            rightOffset = root.rightOffset;
+            bottomOffset = root.bottomOffset;
+        }
+
+        private ScrollingListBuilder record(Consumer<ScrollingListBuilder> action) {
+            if (actions == null) {
+                actions = new ArrayList<>(2);
+                added = new int[2];
+            } else if (actions.size() == added.length) {
+                added = Arrays.copyOf(added, added.length << 1);
+            }
+            added[actions.size()] = components.size();
+            actions.add(action);
+            return this;
+        }
+
+        void replay(ScrollingListBuilder root, Collection<ScrollingListComponent> target) {
+            List<ScrollingListComponent> components = (List<ScrollingListComponent>) this.components;
+            int from = 0;
+            if (actions != null) {
+                for (int i = 0; i < actions.size(); i++) {
+                    from = flush(root, target, components, from, added[i]);
+                    actions.get(i).accept(root);
+                }
+            }
+            flush(root, target, components, from, components.size());
+        }
+
+        private static int flush(ScrollingListBuilder root, Collection<ScrollingListComponent> target,
+                                 List<ScrollingListComponent> components, int from, int to) {
+            if (from == to) return to;
+            List<ScrollingListComponent> part = components.subList(from, to);
+            target.addAll(part);
+            if (root.trackBounds) {
+                long bounds = ComponentBounds.calculate(part);
+                root.boundsRight = Math.max(root.boundsRight, BoundsCalculator.right(bounds));
+                root.boundsBottom = Math.max(root.boundsBottom, BoundsCalculator.bottom(bounds));
+            }
+            return to;
+        }
+
+        @Override
+        public ScrollingListBuilder border(int rightOffset, int bottomOffset) {
+            return record(root -> root.border(rightOffset, bottomOffset));
+        }
+
+        @Override
+        public ScrollingListBuilder size(int width, int height) {
+            return record(root -> root.size(width, height));
+        }
+
+        @Override
+        public ScrollingListBuilder visitHeight(int height) {
+            return record(root -> root.visitHeight(height));
+        }
+
+        @Override
+        public ScrollingListBuilder calculateSize() {
+            return record(ScrollingListBuilder::calculateSize);
+        }
+
+        @Override
+        public ScrollingListBuilder trackBounds(boolean track) {
+            return record(root -> root.trackBounds(track));
+        }
+
+        @Override
+        public ScrollingListBuilder threadSafe(boolean threadSafe) {
+            return record(root -> root.threadSafe(threadSafe));
+        }
+
+        @Override
+        public VexScrollingList build() {
+            throw new IllegalStateException("Cannot build a scrolling list inside a parallel row");
+        }
+    }
+
+    /**
+     * 创建只构建可见行的滚动栏, 位置/大小/子组件偏移使用此构建器当前的设置, 已经添加的组件不会包括在内
+     *
+     * @param count     总行数
+     * @param rowHeight 每行的高度
+     * @param row       根据行号返回构建这一行的操作
+     * @return 虚拟滚动栏
+     * @see #rows(int, int, IntFunction)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public VirtualScrollingList virtual(int count, int rowHeight,
+                                        IntFunction<? extends Consumer<? super ScrollingListBuilder>> row) {
+        ScrollingListBuilder prototype = newContext();
+        prototype.parent = null;
+        if (parent != null) {
+            ScrollingListBuilder root = this;
+            while (root.parent != null) root = root.parent;
+            prototype.xOffset = root.xOffset;
+            prototype.yOffset = root.yOffset;
+            prototype.width = root.width;
+            prototype.height = root.height;
+        }
+        prototype.components = null;
+        return new VirtualScrollingList(prototype, count, rowHeight, row);
+    }
+
     public ScrollingListBuilder newContext(Consumer<ScrollingListBuilder> action) {
         newContext().accept(action);
         return this;
@@ -277,11 +513,56 @@ public class ScrollingListBuilder extends Locator {
             parent.calculateSize();
             return this;
         }
-        AtomicInteger width = new AtomicInteger(0);
-        AtomicInteger height = new AtomicInteger(0);
-        GuiBuilder.calculateSize(components, width, height);
-        this.width = width.get() + rightOffset;
-        this.fullHeight = height.get() + bottomOffset;
+        if (trackBounds) {
+            this.width = boundsRight + rightOffset;
+            this.fullHeight = boundsBottom + bottomOffset;
+            return this;
+        }
+        long bounds = ComponentBounds.calculate(components);
+        this.width = BoundsCalculator.right(bounds) + rightOffset;
+        this.fullHeight = BoundsCalculator.bottom(bounds) + bottomOffset;
+        return this;
+    }
+
+    /**
+     * 在 {@link #addComponent(ScrollingListComponent)} 时记录子组件的最右/最底位置,
+     * 添加大量行之后 {@link #calculateSize()} 不再需要重新扫描
+     *
+     * @param track 是否记录
+     * @return 构建器本身
+     * @see GuiBuilder#trackBounds(boolean)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ScrollingListBuilder trackBounds(boolean track) {
+        if (parent != null) {
+            parent.trackBounds(track);
+            return this;
+        }
+        if (track && !trackBounds) {
+            long bounds = ComponentBounds.calculate(components);
+            boundsRight = BoundsCalculator.right(bounds);
+            boundsBottom = BoundsCalculator.bottom(bounds);
+        }
+        trackBounds = track;
+        return this;
+    }
+
+    /**
+     * @param threadSafe 是否线程安全
+     * @return 构建器本身
+     * @see GuiBuilder#threadSafe(boolean)
+     * @since 1.0.6
+     */
+    @BuildersModuleVersion("1.0.6")
+    public ScrollingListBuilder threadSafe(boolean threadSafe) {
+        if (parent != null) {
+            parent.threadSafe(threadSafe);
+            return this;
+        }
+        if (components instanceof ComponentList) {
+            ((ComponentList<ScrollingListComponent>) components).threadSafe(threadSafe);
+        }
         return this;
     }
 
@@ -5,7 +5,12 @@
 
 package lk.vexview.builders;
 
+import lk.vexview.gui.components.VexImage;
+import lk.vexview.gui.components.expand.VexSplitImage;
+
 import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -56,7 +61,8 @@ public class Slice9 extends Locator implements Consumer<GuiBuilder> {
             icw, ich;
 
     static {
-        ReflectionUtil.register(EntityDrawBuilder.class, MethodHandles.lookup());
+        // @version 1.0.6: 注册了错误的类, clone() 无法使用
+        ReflectionUtil.register(Slice9.class, MethodHandles.lookup());
     }
 
     @Override
@@ -180,128 +186,201 @@ public class Slice9 extends Locator implements Consumer<GuiBuilder> {
 
     /**
      * 渲染9 Slice
+     * <p>
+     * 切割位置只由几何信息决定, 相同几何信息的渲染计划会被缓存, 之后只需要按照偏移生成组件
      *
      * @param guiBuilder 使用的Builder
      * @param doCenter   时候添加中心图片
      */
     public void accept(GuiBuilder guiBuilder, boolean doCenter) {
-        GuiBuilder context = guiBuilder.newContext().offset(xOffset, yOffset);
-        boolean wmin = width < left + right;
-        boolean hmin = height < top + bottom;
-        if (wmin) {
-            if (hmin) {
-                context
-                        .image(lt -> lt.split().background(sudoku).splitOffset(0, 0)
-                                .imageSize(isw, ish)
-                                .splitSize(left, top).size(width / 2, height / 2))
-                        .image(rt -> rt.split().background(sudoku).splitOffset(isw - right, 0)
-                                .splitSize(right, top).size(width / 2, height / 2)
-                                .imageSize(isw, ish)
-                                .offset(width / 2, 0))
-                        .image(lb -> lb.split().background(sudoku).splitOffset(0, ish - bottom)
-                                .splitSize(left, bottom).size(width / 2, height / 2)
-                                .imageSize(isw, ish)
-                                .offset(0, height / 2))
-                        .image(rb -> rb.split().background(sudoku).splitOffset(isw - right, ish - bottom)
-                                .splitSize(right, bottom).size(width / 2, height / 2)
-                                .offset(width / 2, height / 2)
-                                .imageSize(isw, ish)
-                        );
-            } else {
-                context
-                        .image(lt -> lt.split().background(sudoku).splitOffset(0, 0)
-                                .splitSize(left, top).size(width / 2, top)
-                                .imageSize(isw, ish))
-                        .image(rt -> rt.split().background(sudoku).splitOffset(isw - right, 0)
-                                .splitSize(right, top).size(width / 2, top)
-                                .offset(width / 2, 0)
-                                .imageSize(isw, ish))
-                        .image(lb -> lb.split().background(sudoku).splitOffset(0, ish - bottom)
-                                .splitSize(left, bottom).size(width / 2, bottom)
-                                .offset(0, height - top)
-                                .imageSize(isw, ish))
-                        .image(rb -> rb.split().background(sudoku).splitOffset(isw - right, ish - bottom)
-                                .splitSize(right, bottom).size(width / 2, bottom)
-                                .offset(width / 2, height - top)
-                                .imageSize(isw, ish))
-                        .image(lf -> lf.split().background(sudoku).splitOffset(0, top)
-                                .splitSize(left, ish - top - bottom)
-                                .size(width / 2, height - top - bottom)
-                                .offset(0, top)
-                                .imageSize(isw, ish))
-                        .image(rg -> rg.split().background(sudoku).splitOffset(isw - right, top)
-                                .splitSize(right, ish - top - bottom)
-                                .size(width / 2, height - top - bottom)
-                                .offset(width / 2, top)
-                                .imageSize(isw, ish));
+        // @version 1.0.6: 不再为每一块图片创建 SplitImageBuilder
+        render(guiBuilder, guiBuilder.xOffset + xOffset, guiBuilder.yOffset + yOffset, width, height, doCenter);
+    }
+
+    /**
+     * 以指定的位置和大小渲染, 不修改此9 Slice信息
+     */
+    void render(GuiBuilder guiBuilder, int x, int y, int width, int height, boolean doCenter) {
+        int[] plan = plan(width, height);
+        for (int i = 0; i < plan.length; i += RenderPlan.STRIDE) {
+            if (i == RenderPlan.CENTER) {
+                if (doCenter) guiBuilder.addComponent(new VexImage(center,
+                        x + plan[i], y + plan[i + 1], plan[i + 2], plan[i + 3]));
+                continue;
+            }
+            guiBuilder.addComponent(new VexSplitImage(sudoku,
+                    x + plan[i], y + plan[i + 1],
+                    plan[i + 4], plan[i + 5],
+                    plan[i + 2], plan[i + 3],
+                    plan[i + 6], plan[i + 7],
+                    isw, ish));
+        }
+    }
+
+    private int[] plan(int width, int height) {
+        return RenderPlan.get(new RenderPlan(this, width, height));
+    }
+
+    /**
+     * 9 Slice 的渲染计划, 以几何信息作为缓存的key, 创建后不再修改.
+     * <p>
+     * 计划为 {@code [x, y, width, height, splitX, splitY, splitWidth, splitHeight] * n} 的数组,
+     * 完整的九格宫第九段为中心图片.
+     * <p>
+     * 缓存按 key 的哈希分为 {@link #SEGMENTS} 段, 每段独立加锁并淘汰最久没有使用的计划,
+     * 总大小可以用 {@code -Dvexview.builders.slice9-cache=大小} 修改, 0 为关闭缓存
+     */
+    @BuildersModuleVersion("1.0.6")
+    static final class RenderPlan {
+        static final int STRIDE = 8, CENTER = STRIDE * 8;
+        static final int MAXIMUM_SIZE = Math.max(0, Integer.getInteger("vexview.builders.slice9-cache", 256));
+        private static final int SEGMENTS = 8;
+        private static final int SEGMENT_SIZE = (MAXIMUM_SIZE + SEGMENTS - 1) / SEGMENTS;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static final LinkedHashMap<RenderPlan, int[]>[] PLANS = new LinkedHashMap[SEGMENTS];
+
+        static {
+            for (int i = 0; i < SEGMENTS; i++) {
+                PLANS[i] = new LinkedHashMap<RenderPlan, int[]>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<RenderPlan, int[]> eldest) {
+                        return size() > SEGMENT_SIZE;
+                    }
+                };
+            }
+        }
+
+        private final int left, right, top, bottom, width, height, isw, ish, icw, ich;
+        private final int hash;
+
+        RenderPlan(Slice9 slice9, int width, int height) {
+            left = slice9.left;
+            right = slice9.right;
+            top = slice9.top;
+            bottom = slice9.bottom;
+            this.width = width;
+            this.height = height;
+            isw = slice9.isw;
+            ish = slice9.ish;
+            icw = slice9.icw;
+            ich = slice9.ich;
+            int result = left;
+            result = 31 * result + right;
+            result = 31 * result + top;
+            result = 31 * result + bottom;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + isw;
+            result = 31 * result + ish;
+            result = 31 * result + icw;
+            hash = 31 * result + ich;
+        }
+
+        static int[] get(RenderPlan key) {
+            if (MAXIMUM_SIZE == 0) return key.compute();
+            LinkedHashMap<RenderPlan, int[]> segment = PLANS[(key.hash ^ (key.hash >>> 16)) & (SEGMENTS - 1)];
+            int[] plan;
+            synchronized (segment) {
+                plan = segment.get(key);
             }
-        } else if (hmin) {
-            context.image(
-                    lt -> lt.split().splitSize(left, top).size(left, height / 2).background(sudoku).imageSize(isw, ish)
-            ).image(
-                    lb -> lb.split().splitSize(left, bottom).size(left, height / 2).background(sudoku).imageSize(isw, ish)
-                            .splitOffset(0, ish - bottom)
-                            .offset(0, height / 2)
-            ).image(
-                    rt -> rt.split().splitSize(right, top).size(right, height / 2).background(sudoku).imageSize(isw, ish)
-                            .splitOffset(isw - right, 0)
-                            .offset(width - left, 0)
-            ).image(
-                    rb -> rb.split().splitSize(right, bottom).size(right, height / 2).background(sudoku).imageSize(isw, ish)
-                            .splitOffset(isw - right, ish - bottom)
-                            .offset(width - left, height / 2)
-            ).image(
-                    tp -> tp.split().splitSize(isw - left - right, top).size(width - left - right, height / 2)
-                            .background(sudoku).splitOffset(left, 0).imageSize(isw, ish)
-                            .offset(left, 0)
-            ).image(
-                    bom -> bom.split().splitSize(isw - left - right, bottom).size(width - left - right, height / 2)
-                            .background(sudoku).splitOffset(left, ish - bottom)
-                            .offset(left, height / 2).imageSize(isw, ish)
-            );
-        } else {
-            context.image(
-                    // Left and Top
-                    lt -> lt.split().splitSize(left, top).size(left, top).background(sudoku).imageSize(isw, ish)
-            ).image(
-                    // Right And Top
-                    rt -> rt.split().splitSize(right, top).size(right, top).background(sudoku).imageSize(isw, ish)
-                            .splitOffset(isw - right, 0).offset(width - right, 0)
-            ).image(
-                    // Left And Bottom
-                    lb -> lb.split().splitSize(left, bottom).size(left, bottom).background(sudoku).imageSize(isw, ish)
-                            .splitOffset(0, ish - bottom).offset(0, height - bottom)
-            ).image(
-                    // Right And Bottom
-                    rb -> rb.split().splitSize(right, bottom).size(right, bottom).background(sudoku).imageSize(isw, ish)
-                            .splitOffset(isw - right, ish - bottom).offset(width - right, height - bottom)
-            ).image(
-                    // Left
-                    lf -> lf.split().splitSize(left, ish - top - bottom).size(left, height - top - bottom)
-                            .background(sudoku).splitOffset(0, top).imageSize(isw, ish)
-                            .offset(0, top)
-            ).image(
-                    // Right
-                    rt -> rt.split().splitSize(right, ish - top - bottom).size(right, height - top - bottom)
-                            .background(sudoku).splitOffset(isw - right, top).imageSize(isw, ish)
-                            .offset(width - right, top)
-            ).image(
-                    // Top
-                    tp -> tp.split().splitSize(isw - left - right, top).size(width - left - right, top)
-                            .background(sudoku).splitOffset(left, 0).imageSize(isw, ish)
-                            .offset(left, 0)
-            ).image(
-                    // Bottom
-                    bm -> bm.split().splitSize(isw - left - right, bottom).size(width - left - right, bottom)
-                            .background(sudoku).splitOffset(left, ish - bottom).imageSize(isw, ish)
-                            .offset(left, height - bottom)
-            );
-            if (doCenter) {
-                context.image(
-                        ct -> ct.offset(left, top).size(width - left - right, height - top - bottom)
-                                .imageSize(icw, ich).background(center)
-                );
+            if (plan == null) {
+                plan = key.compute();
+                synchronized (segment) {
+                    segment.put(key, plan);
+                }
             }
+            return plan;
+        }
+
+        static int size() {
+            int size = 0;
+            for (LinkedHashMap<RenderPlan, int[]> segment : PLANS) {
+                synchronized (segment) {
+                    size += segment.size();
+                }
+            }
+            return size;
+        }
+
+        private static void split(int[] plan, int index, int x, int y, int width, int height,
+                                  int splitX, int splitY, int splitWidth, int splitHeight) {
+            int i = index * STRIDE;
+            plan[i] = x;
+            plan[i + 1] = y;
+            plan[i + 2] = width;
+            plan[i + 3] = height;
+            plan[i + 4] = splitX;
+            plan[i + 5] = splitY;
+            plan[i + 6] = splitWidth;
+            plan[i + 7] = splitHeight;
+        }
+
+        int[] compute() {
+            boolean wmin = width < left + right;
+            boolean hmin = height < top + bottom;
+            int[] plan;
+            if (wmin) {
+                if (hmin) {
+                    plan = new int[STRIDE * 4];
+                    split(plan, 0, 0, 0, width / 2, height / 2, 0, 0, left, top);
+                    split(plan, 1, width / 2, 0, width / 2, height / 2, isw - right, 0, right, top);
+                    split(plan, 2, 0, height / 2, width / 2, height / 2, 0, ish - bottom, left, bottom);
+                    split(plan, 3, width / 2, height / 2, width / 2, height / 2, isw - right, ish - bottom, right, bottom);
+                } else {
+                    plan = new int[STRIDE * 6];
+                    split(plan, 0, 0, 0, width / 2, top, 0, 0, left, top);
+                    split(plan, 1, width / 2, 0, width / 2, top, isw - right, 0, right, top);
+                    split(plan, 2, 0, height - top, width / 2, bottom, 0, ish - bottom, left, bottom);
+                    split(plan, 3, width / 2, height - top, width / 2, bottom, isw - right, ish - bottom, right, bottom);
+                    split(plan, 4, 0, top, width / 2, height - top - bottom, 0, top, left, ish - top - bottom);
+                    split(plan, 5, width / 2, top, width / 2, height - top - bottom, isw - right, top, right, ish - top - bottom);
+                }
+            } else if (hmin) {
+                plan = new int[STRIDE * 6];
+                split(plan, 0, 0, 0, left, height / 2, 0, 0, left, top);
+                split(plan, 1, 0, height / 2, left, height / 2, 0, ish - bottom, left, bottom);
+                split(plan, 2, width - left, 0, right, height / 2, isw - right, 0, right, top);
+                split(plan, 3, width - left, height / 2, right, height / 2, isw - right, ish - bottom, right, bottom);
+                split(plan, 4, left, 0, width - left - right, height / 2, left, 0, isw - left - right, top);
+                split(plan, 5, left, height / 2, width - left - right, height / 2, left, ish - bottom, isw - left - right, bottom);
+            } else {
+                plan = new int[STRIDE * 9];
+                // Left and Top
+                split(plan, 0, 0, 0, left, top, 0, 0, left, top);
+                // Right And Top
+                split(plan, 1, width - right, 0, right, top, isw - right, 0, right, top);
+                // Left And Bottom
+                split(plan, 2, 0, height - bottom, left, bottom, 0, ish - bottom, left, bottom);
+                // Right And Bottom
+                split(plan, 3, width - right, height - bottom, right, bottom, isw - right, ish - bottom, right, bottom);
+                // Left
+                split(plan, 4, 0, top, left, height - top - bottom, 0, top, left, ish - top - bottom);
+                // Right
+                split(plan, 5, width - right, top, right, height - top - bottom, isw - right, top, right, ish - top - bottom);
+                // Top
+                split(plan, 6, left, 0, width - left - right, top, left, 0, isw - left - right, top);
+                // Bottom
+                split(plan, 7, left, height - bottom, width - left - right, bottom, left, ish - bottom, isw - left - right, bottom);
+                // Center
+                split(plan, 8, left, top, width - left - right, height - top - bottom, 0, 0, icw, ich);
+            }
+            return plan;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RenderPlan)) return false;
+            RenderPlan that = (RenderPlan) o;
+            return hash == that.hash
+                    && left == that.left && right == that.right && top == that.top && bottom == that.bottom
+                    && width == that.width && height == that.height
+                    && isw == that.isw && ish == that.ish && icw == that.icw && ich == that.ich;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
     }
 
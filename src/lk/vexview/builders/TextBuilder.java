@@ -11,6 +11,7 @@ import lk.vexview.hud.VexTextShow;
 import lk.vexview.tag.TagDirection;
 import lk.vexview.tag.components.VexTextTag;
 
+import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -48,6 +49,11 @@ public class TextBuilder extends Locator {
     protected double scale = 1.0;
     protected VexHoverText hover;
 
+    static {
+        // @version 1.0.6: copy() 需要注册
+        ReflectionUtil.register(TextBuilder.class, MethodHandles.lookup());
+    }
+
     protected TextBuilder() {
     }
 
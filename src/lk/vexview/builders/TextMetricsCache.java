@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: TextMetricsCache.java@author: karlatemp@vip.qq.com: 2020/2/6 下午3:40@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 文本测量结果的缓存. 菜单里的物品名/Lore/按钮文字会被反复测量, 命中后只是一次哈希查找.
+ * <p>
+ * 无锁的组相联表: 每个文本只能放在 {@link #WAYS} 个位置中的一个, 满了之后替换最近没有命中的一个 (近似 LRU).
+ * 测量结果直接以 long 保存在条目中, 不装箱.
+ * <p>
+ * 默认大小为 4096 条, 可以用 {@code -Dvexview.builders.text-cache=大小} 或者 {@link #maximumSize(int)} 修改,
+ * 向上取整为2的幂, 0 为关闭缓存
+ *
+ * <pre>{@code
+ * TextMetricsCache cache = MinecraftFontSizeCalculation.TEXT_CACHE;
+ * plugin.getLogger().info("Text cache: " + cache.hits() + " hits, " + cache.misses() + " misses");
+ * }</pre>
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class TextMetricsCache {
+    private static final int WAYS = 4;
+    private static final AtomicReferenceArray<Entry> EMPTY = new AtomicReferenceArray<>(0);
+
+    /**
+     * 每 {@link #WAYS} 个位置为一组, 长度为0时关闭缓存
+     */
+    private volatile AtomicReferenceArray<Entry> table;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+    private volatile int maximumSize;
+
+    public TextMetricsCache(int maximumSize) {
+        maximumSize(maximumSize);
+    }
+
+    /**
+     * 修改缓存的最大条目数, 已经缓存的内容会被清空
+     *
+     * @param maximumSize 最大条目数, 0 为关闭缓存
+     * @return 缓存本身
+     */
+    public TextMetricsCache maximumSize(int maximumSize) {
+        int size = Math.max(0, maximumSize);
+        if (size != 0) {
+            size = Math.max(WAYS, size == 1 ? 1 : Integer.highestOneBit(Math.min(size, 1 << 30) - 1) << 1);
+        }
+        this.maximumSize = size;
+        this.table = size == 0 ? EMPTY : new AtomicReferenceArray<>(size);
+        return this;
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    long get(String text, ToLongFunction<String> measure) {
+        AtomicReferenceArray<Entry> table = this.table;
+        int length = table.length();
+        if (length == 0) return measure.applyAsLong(text);
+        int hash = text.hashCode() * 0x9E3779B9;
+        int set = (hash ^ (hash >>> 16)) & (length - WAYS);
+        for (int i = set; i < set + WAYS; i++) {
+            Entry entry = table.get(i);
+            if (entry != null && entry.hash == hash && entry.text.equals(text)) {
+                if (!entry.used) entry.used = true;
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        long measured = measure.applyAsLong(text);
+        // 空位, 否则最近没有命中的条目; 都命中过时清除标记, 替换第一个
+        int victim = set;
+        for (int i = set; i < set + WAYS; i++) {
+            Entry entry = table.get(i);
+            if (entry == null || !entry.used) {
+                victim = i;
+                break;
+            }
+            entry.used = false;
+        }
+        table.set(victim, new Entry(text, hash, measured));
+        return measured;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return 命中率, 没有任何查询时为 0
+     */
+    public double hitRate() {
+        long hits = hits(), total = hits + misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return 缓存的条目数, 需要遍历整个表
+     */
+    public int size() {
+        AtomicReferenceArray<Entry> table = this.table;
+        int size = 0;
+        for (int i = 0, length = table.length(); i < length; i++) {
+            if (table.get(i) != null) size++;
+        }
+        return size;
+    }
+
+    /**
+     * 清空缓存与计数器, 比如替换了 minecraft_font_size.bin 之后
+     */
+    public void clear() {
+        AtomicReferenceArray<Entry> table = this.table;
+        for (int i = 0, length = table.length(); i < length; i++) {
+            table.set(i, null);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private static final class Entry {
+        final String text;
+        final int hash;
+        final long value;
+        /**
+         * 上次替换之后是否命中过, 多个线程同时修改没有关系
+         */
+        boolean used;
+
+        Entry(String text, int hash, long value) {
+            this.text = text;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+}
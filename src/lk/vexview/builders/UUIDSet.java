@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: UUIDSet.java@author: karlatemp@vip.qq.com: 2020/2/9 下午2:10@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import java.util.*;
+
+/**
+ * 保存 UUID 的 Set, 以两个 long 直接存放在开放寻址的数组中, 不保存 {@link UUID} 对象.
+ * <p>
+ * contains/add/remove 都是 O(1), 每个 UUID 占用 16 字节 (加上空位, 负载因子 0.75).
+ * 给 {@link ChannelBuilder} 的黑名单/白名单使用, 可以用 {@link #asList()} 交给 VexChatChannel.
+ * <p>
+ * 所有操作都加锁, 迭代器遍历的是创建时的快照. 快照在下一次修改前共用, 没有修改时遍历/按下标访问不需要复制
+ *
+ * @author Karlatemp
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class UUIDSet extends AbstractSet<UUID> {
+    private static final float LOAD_FACTOR = 0.75f;
+    /**
+     * [msb, lsb] 交替存放, 0/0 表示空位
+     */
+    private long[] table;
+    private int size, threshold;
+    /**
+     * 00000000-0000-0000-0000-000000000000 与空位相同, 单独记录
+     */
+    private boolean containsNil;
+    /**
+     * 每次修改 (包括扩容后顺序变化) 加一, 用于判断 {@link #snapshot} 是否过期
+     */
+    private int modCount;
+    private UUID[] snapshot;
+    private int snapshotModCount;
+
+    public UUIDSet() {
+        this(16);
+    }
+
+    public UUIDSet(int expectedSize) {
+        allocate(capacity(expectedSize));
+    }
+
+    public UUIDSet(Collection<? extends UUID> values) {
+        this(values.size());
+        addAll(values);
+    }
+
+    private static int capacity(int expectedSize) {
+        int needed = (int) Math.min(1 << 30, (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR) + 1);
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity << 1];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * @return key 所在的位置, 不存在时为 ~空位
+     */
+    private int find(long msb, long lsb) {
+        long[] table = this.table;
+        int mask = (table.length >>> 1) - 1;
+        for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+            long m = table[i << 1], l = table[i << 1 | 1];
+            if (m == msb && l == lsb) return i;
+            if (m == 0 && l == 0) return ~i;
+        }
+    }
+
+    public synchronized boolean contains(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) return containsNil;
+        return find(msb, lsb) >= 0;
+    }
+
+    public synchronized boolean add(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (containsNil) return false;
+            containsNil = true;
+            size++;
+            modCount++;
+            return true;
+        }
+        int i = find(msb, lsb);
+        if (i >= 0) return false;
+        i = ~i;
+        table[i << 1] = msb;
+        table[i << 1 | 1] = lsb;
+        modCount++;
+        if (++size > threshold) rehash(table.length);
+        return true;
+    }
+
+    public synchronized boolean remove(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (!containsNil) return false;
+            containsNil = false;
+            size--;
+            modCount++;
+            return true;
+        }
+        int i = find(msb, lsb);
+        if (i < 0) return false;
+        // 线性探测的删除: 把之后同一串中可以前移的元素移到空出的位置
+        long[] table = this.table;
+        int mask = (table.length >>> 1) - 1;
+        for (int j = (i + 1) & mask; ; j = (j + 1) & mask) {
+            long m = table[j << 1], l = table[j << 1 | 1];
+            if (m == 0 && l == 0) break;
+            int k = hash(m, l) & mask;
+            if (i <= j ? (k <= i || k > j) : (k <= i && k > j)) {
+                table[i << 1] = m;
+                table[i << 1 | 1] = l;
+                i = j;
+            }
+        }
+        table[i << 1] = 0;
+        table[i << 1 | 1] = 0;
+        size--;
+        modCount++;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        allocate(capacity);
+        modCount++;
+        for (int i = 0; i < old.length; i += 2) {
+            long m = old[i], l = old[i + 1];
+            if (m != 0 || l != 0) {
+                int slot = ~find(m, l);
+                table[slot << 1] = m;
+                table[slot << 1 | 1] = l;
+            }
+        }
+    }
+
+    /**
+     * 预留空间, 批量添加前调用可以避免多次扩容
+     *
+     * @param expectedSize 预计的元素数量
+     */
+    public synchronized void ensureCapacity(int expectedSize) {
+        if (expectedSize > threshold) rehash(capacity(expectedSize));
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof UUID)) return false;
+        UUID uuid = (UUID) o;
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    @Override
+    public boolean add(UUID uuid) {
+        return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof UUID)) return false;
+        UUID uuid = (UUID) o;
+        return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends UUID> values) {
+        ensureCapacity(size + values.size());
+        boolean modified = false;
+        for (UUID uuid : values) {
+            modified |= add(uuid);
+        }
+        return modified;
+    }
+
+    @Override
+    public synchronized boolean removeAll(Collection<?> values) {
+        boolean modified = false;
+        for (Object value : values) {
+            modified |= remove(value);
+        }
+        return modified;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+        containsNil = false;
+        modCount++;
+    }
+
+    /**
+     * @return 当前内容的快照, 不能修改, 在下一次修改前返回同一个数组
+     */
+    private synchronized UUID[] snapshot() {
+        UUID[] values = snapshot;
+        if (values != null && snapshotModCount == modCount) return values;
+        values = new UUID[size];
+        int index = 0;
+        if (containsNil) values[index++] = new UUID(0, 0);
+        for (int i = 0; i < table.length; i += 2) {
+            long m = table[i], l = table[i + 1];
+            if (m != 0 || l != 0) values[index++] = new UUID(m, l);
+        }
+        snapshot = values;
+        snapshotModCount = modCount;
+        return values;
+    }
+
+    @Override
+    public Object[] toArray() {
+        UUID[] snapshot = snapshot();
+        return Arrays.copyOf(snapshot, snapshot.length, Object[].class);
+    }
+
+    @Override
+    public Iterator<UUID> iterator() {
+        UUID[] snapshot = snapshot();
+        return new Iterator<UUID>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public UUID next() {
+                if (index >= snapshot.length) throw new NoSuchElementException();
+                return snapshot[index++];
+            }
+
+            @Override
+            public void remove() {
+                if (index == 0) throw new IllegalStateException();
+                UUIDSet.this.remove(snapshot[index - 1]);
+            }
+        };
+    }
+
+    /**
+     * 以 List 的形式使用此 Set, 给只接受 List 的 VexChatChannel 使用.
+     * contains/add/remove(Object) 是 O(1), 按下标访问使用内容的快照, 没有修改时也是 O(1).
+     * <p>
+     * 重复的 UUID 不会被添加, 此时 add/addAll 返回 false. 元素的顺序由 Set 决定,
+     * 所以不支持 {@code add(int, UUID)} 和 {@code set(int, UUID)}
+     *
+     * @return 共用内容的 List
+     */
+    public List<UUID> asList() {
+        return new ListView();
+    }
+
+    private final class ListView extends AbstractList<UUID> {
+        @Override
+        public UUID get(int index) {
+            UUID[] values = snapshot();
+            if (index < 0 || index >= values.length) throw new IndexOutOfBoundsException(String.valueOf(index));
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return UUIDSet.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return UUIDSet.this.contains(o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (!contains(o)) return -1;
+            UUID[] values = snapshot();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equals(o)) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return indexOf(o);
+        }
+
+        @Override
+        public boolean add(UUID uuid) {
+            return UUIDSet.this.add(uuid);
+        }
+
+        @Override
+        public UUID remove(int index) {
+            UUID old = get(index);
+            UUIDSet.this.remove(old);
+            return old;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return UUIDSet.this.remove(o);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends UUID> c) {
+            return UUIDSet.this.addAll(c);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            return UUIDSet.this.removeAll(c);
+        }
+
+        @Override
+        public void clear() {
+            UUIDSet.this.clear();
+        }
+
+        @Override
+        public Iterator<UUID> iterator() {
+            return UUIDSet.this.iterator();
+        }
+
+        @Override
+        public Object[] toArray() {
+            return UUIDSet.this.toArray();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018-2020 Karlatemp. All rights reserved.
+ * Reserved.FileName: VirtualScrollingList.java@author: karlatemp@vip.qq.com: 2020/2/7 下午4:30@version: 2.0
+ */
+
+package lk.vexview.builders;
+
+import lk.vexview.gui.components.VexScrollingList;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * 只构建可见行的滚动栏.
+ * <p>
+ * 行数很多的时候, 一次把所有行放进 {@link VexScrollingList} 会让GUI非常大.
+ * 此对象只保存行数/行高/行的构建方式, 每次只构建以某一行为起点的一个窗口 (可见行数 + 之后的 {@link #overscan(int)} 行),
+ * 构建时间和内存只与可见行数有关.
+ * <p>
+ * VexView 没有滚动事件, 翻页由插件自己触发 (例如翻页按钮), 然后用 {@link #window(int)}/{@link #page(int)} 生成新的窗口替换旧的滚动栏
+ *
+ * <pre>{@code
+ * VirtualScrollingList ranks = ScrollingListBuilder.builder()
+ *      .location(10, 30).visitHeight(200).size(180, 0)
+ *      .virtual(entries.size(), 20, i -> row -> row
+ *          .text(text -> text.addLine("#" + (i + 1) + " " + entries.get(i).getName()))
+ *      );
+ *
+ * GuiBuilder.builder().size(200, 260)
+ *      .addComponent(ranks.page(page))
+ *      .button(next -> next.id("rank-next").text("下一页").....)
+ *      .build(.....);
+ * }</pre>
+ *
+ * @author Karlatemp
+ * @see ScrollingListBuilder#virtual(int, int, IntFunction)
+ * @since 1.0.6
+ */
+@BuildersModuleVersion("1.0.6")
+public final class VirtualScrollingList {
+    private final ScrollingListBuilder prototype;
+    private final int count, rowHeight;
+    private final IntFunction<? extends Consumer<? super ScrollingListBuilder>> row;
+    private volatile int overscan;
+
+    VirtualScrollingList(ScrollingListBuilder prototype, int count, int rowHeight,
+                         IntFunction<? extends Consumer<? super ScrollingListBuilder>> row) {
+        if (count < 0) throw new IllegalArgumentException("count < 0");
+        if (rowHeight <= 0) throw new IllegalArgumentException("rowHeight <= 0");
+        this.prototype = prototype;
+        this.count = count;
+        this.rowHeight = rowHeight;
+        this.row = Objects.requireNonNull(row, "row");
+        this.overscan = visibleRows();
+    }
+
+    /**
+     * 窗口在可见行之后额外构建的行数, 玩家可以在窗口内继续滚动. 默认为一屏
+     *
+     * @param overscan 额外构建的行数
+     * @return 此对象
+     */
+    public VirtualScrollingList overscan(int overscan) {
+        this.overscan = Math.max(0, overscan);
+        return this;
+    }
+
+    public int getOverscan() {
+        return overscan;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getRowHeight() {
+        return rowHeight;
+    }
+
+    /**
+     * @return 一屏可以看见的行数
+     */
+    public int visibleRows() {
+        return Math.max(1, (prototype.height + rowHeight - 1) / rowHeight);
+    }
+
+    /**
+     * @return 按照 {@link #visibleRows()} 分页的页数
+     */
+    public int pages() {
+        int visible = visibleRows();
+        return Math.max(1, (count + visible - 1) / visible);
+    }
+
+    /**
+     * 构建第 page 页 (从0开始)
+     *
+     * @param page 页码
+     * @return 滚动栏
+     */
+    public VexScrollingList page(int page) {
+        return window(page * visibleRows());
+    }
+
+    /**
+     * 构建以第 firstRow 行为顶部的窗口. 窗口内第一行放在滚动栏的顶部,
+     * 行的构建操作收到的是原本的行号
+     *
+     * @param firstRow 可见的第一行
+     * @return 滚动栏
+     */
+    public VexScrollingList window(int firstRow) {
+        int start = Math.max(0, Math.min(firstRow, count - 1));
+        int end = (int) Math.min(count, (long) start + visibleRows() + overscan);
+        ScrollingListBuilder builder = prototype.copy(null);
+        builder.components = new ComponentList<>();
+        builder.fullHeight = 0;
+        builder.rows(end - start, rowHeight, index -> row.apply(start + index));
+        return builder.build();
+    }
+}
@@ -7,7 +7,9 @@ package lk.vexview.gameprofile;
 
 import com.google.common.collect.ForwardingMultimap;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Objects;
@@ -20,12 +22,16 @@ import java.util.UUID;
  * @since 2.6
  */
 public class WrappedGameProfile {
-    static Class<?> GameProfile, Property;
-    static Constructor<?> GameProfile_init_Ljava_util_UUID_Ljava_util_String,
-            Property_init_name_value_sign;
-    static Method GameProfile_getProperties_LPropertyMap,
-            Property_getSign, Property_getValue,
-            GP_getUniqueId, Gp_getName;
+    static final Class<?> GameProfile, Property;
+    // @version 1.0.6: static final MethodHandle + invokeExact 代替 Method.invoke, JIT 后与直接调用相同.
+    // 参数/返回值中的 authlib 类型都已转为 Object
+    static final MethodHandle
+            GameProfile_init_Ljava_util_UUID_Ljava_util_String, // (UUID, String)Object
+            Property_init_name_value_sign, // (String, String, String)Object
+            GameProfile_getProperties_LPropertyMap, // (Object)ForwardingMultimap
+            Property_getSign, Property_getValue, // (Object)String
+            GP_getUniqueId, // (Object)UUID
+            Gp_getName; // (Object)String
     Object profile;
     WrappedPropertyMap propertyMap;
 
@@ -42,24 +48,49 @@ public class WrappedGameProfile {
             }
 
             Property = P;
-            (Property_init_name_value_sign = P.getConstructor(String.class, String.class, String.class)).setAccessible(true);
             GameProfile = GP;
-            (GameProfile_init_Ljava_util_UUID_Ljava_util_String = GP.getConstructor(UUID.class, String.class)).setAccessible(true);
-            (GameProfile_getProperties_LPropertyMap = GP.getDeclaredMethod("getProperties")).setAccessible(true);
-            (Property_getValue = P.getDeclaredMethod("getValue")).setAccessible(true);
-            (Property_getSign = P.getDeclaredMethod("getSignature")).setAccessible(true);
-            (GP_getUniqueId = GP.getDeclaredMethod("getId")).setAccessible(true);
-            (Gp_getName = GP.getDeclaredMethod("getName")).setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Property_init_name_value_sign = lookup.findConstructor(P,
+                    MethodType.methodType(void.class, String.class, String.class, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class, String.class, String.class));
+            GameProfile_init_Ljava_util_UUID_Ljava_util_String = lookup.findConstructor(GP,
+                    MethodType.methodType(void.class, UUID.class, String.class))
+                    .asType(MethodType.methodType(Object.class, UUID.class, String.class));
+            GameProfile_getProperties_LPropertyMap = getter(lookup, GP, "getProperties", ForwardingMultimap.class);
+            Property_getValue = getter(lookup, P, "getValue", String.class);
+            Property_getSign = getter(lookup, P, "getSignature", String.class);
+            GP_getUniqueId = getter(lookup, GP, "getId", UUID.class);
+            Gp_getName = getter(lookup, GP, "getName", String.class);
         } catch (Throwable e) {
             throw new ExceptionInInitializerError(e);
         }
     }
 
+    /**
+     * 无参方法, 转为 (Object)returnType. 与 1.0.5 相同使用 getDeclaredMethod + setAccessible, 非 public 的方法同样可以访问
+     */
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Class<?> owner, String name, Class<?> returnType)
+            throws ReflectiveOperationException {
+        Method method = owner.getDeclaredMethod(name);
+        method.setAccessible(true);
+        return lookup.unreflect(method)
+                .asType(MethodType.methodType(returnType, Object.class));
+    }
+
+    /**
+     * 包装 authlib 抛出的异常, 与 1.0.5 的 InvocationTargetException 处理相同: 任何异常都包装为 RuntimeException.
+     * 访问检查在类初始化时已经完成, 调用时不会再出现 1.0.5 中的 IllegalAccessException
+     */
+    static RuntimeException wrap(Throwable error) {
+        return new RuntimeException(error);
+    }
+
     public WrappedGameProfile(UUID uuid, String name) {
         try {
-            profile = GameProfile_init_Ljava_util_UUID_Ljava_util_String.newInstance(uuid, name);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
+            profile = (Object) GameProfile_init_Ljava_util_UUID_Ljava_util_String.invokeExact(uuid, name);
+        } catch (Throwable e) {
+            // 1.0.5 包装的是 Constructor.newInstance 抛出的 InvocationTargetException
+            throw new RuntimeException(new InvocationTargetException(e));
         }
         init();
     }
@@ -81,11 +112,9 @@ public class WrappedGameProfile {
 
     public UUID getId() {
         try {
-            return (UUID) GP_getUniqueId.invoke(profile);
-        } catch (IllegalAccessException e) {
-            throw new InternalError(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e.getTargetException());
+            return (UUID) GP_getUniqueId.invokeExact(profile);
+        } catch (Throwable e) {
+            throw wrap(e);
         }
     }
 
@@ -95,11 +124,9 @@ public class WrappedGameProfile {
 
     public String getName() {
         try {
-            return (String) Gp_getName.invoke(profile);
-        } catch (IllegalAccessException e) {
-            throw new InternalError(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e.getTargetException());
+            return (String) Gp_getName.invokeExact(profile);
+        } catch (Throwable e) {
+            throw wrap(e);
         }
     }
 }
@@ -7,7 +7,7 @@ package lk.vexview.gameprofile;
 
 import com.google.common.collect.ForwardingMultimap;
 
-import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -20,15 +20,20 @@ public class WrappedPropertyMap {
     private ForwardingMultimap<String, Object> PropertyMap;
     WrappedGameProfile profile;
 
+    // @version 1.0.6: PropertyMap.get 返回的是 Collection, 取第一个 Property
+    private Object first(String key) {
+        Collection<Object> properties = PropertyMap.get(key);
+        if (properties == null || properties.isEmpty()) return null;
+        return properties.iterator().next();
+    }
+
     public String getProperty(String key) {
-        Object prop = PropertyMap.get(key);
+        Object prop = first(key);
         if (prop == null) return null;
         try {
-            return (String) WrappedGameProfile.Property_getValue.invoke(prop);
-        } catch (IllegalAccessException e) {
-            throw new InternalError(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e.getTargetException());
+            return (String) WrappedGameProfile.Property_getValue.invokeExact(prop);
+        } catch (Throwable e) {
+            throw WrappedGameProfile.wrap(e);
         }
     }
 
@@ -40,35 +45,33 @@ public class WrappedPropertyMap {
     @SuppressWarnings("unchecked")
     public WrappedPropertyMap(WrappedGameProfile profile) {
         try {
-            PropertyMap = (ForwardingMultimap<String, Object>) WrappedGameProfile.GameProfile_getProperties_LPropertyMap.invoke(profile);
-        } catch (IllegalAccessException e) {
+            // @version 1.0.6: 修复对 WrappedGameProfile 本身调用 getProperties 的错误
+            PropertyMap = (ForwardingMultimap<String, Object>) (ForwardingMultimap<?, ?>)
+                    WrappedGameProfile.GameProfile_getProperties_LPropertyMap.invokeExact(profile.profile);
+        } catch (Throwable e) {
             throw new InternalError(e);
-        } catch (InvocationTargetException e) {
-            throw new InternalError(e.getTargetException());
         }
         this.profile = profile;
     }
 
     public String getSignature(String key) {
-        Object prop = PropertyMap.get(key);
+        Object prop = first(key);
         if (prop == null) return null;
         try {
-            return (String) WrappedGameProfile.Property_getSign.invoke(prop);
-        } catch (IllegalAccessException e) {
-            throw new InternalError(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e.getTargetException());
+            return (String) WrappedGameProfile.Property_getSign.invokeExact(prop);
+        } catch (Throwable e) {
+            throw WrappedGameProfile.wrap(e);
         }
     }
 
     public WrappedPropertyMap put(String key, String value, String signature) {
+        Object property;
         try {
-            PropertyMap.put(key, WrappedGameProfile.Property_init_name_value_sign.newInstance(key, value, signature));
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new InternalError(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e.getTargetException());
+            property = (Object) WrappedGameProfile.Property_init_name_value_sign.invokeExact(key, value, signature);
+        } catch (Throwable e) {
+            throw WrappedGameProfile.wrap(e);
         }
+        PropertyMap.put(key, property);
         return this;
     }
 